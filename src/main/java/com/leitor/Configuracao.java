@@ -0,0 +1,154 @@
+package com.leitor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Configuração do leitor, carregada do arquivo {@code application.properties}
+ * no classpath. Propriedades de sistema ({@code -Dchave=valor}) têm precedência
+ * sobre o arquivo.
+ */
+public class Configuracao {
+
+    private static final Logger logger = LoggerFactory.getLogger(Configuracao.class);
+
+    // Nome do arquivo de configuração no classpath
+    private static final String ARQUIVO = "application.properties";
+
+    // Propriedades lidas do arquivo
+    private final Properties propriedades;
+
+    /**
+     * Cria uma configuração a partir de um conjunto de propriedades já carregado.
+     *
+     * @param propriedades Propriedades de configuração.
+     */
+    public Configuracao(Properties propriedades) {
+        this.propriedades = propriedades;
+    }
+
+    /**
+     * Carrega a configuração do arquivo {@code application.properties} no classpath.
+     * Caso o arquivo não exista, apenas os valores padrão e as propriedades de
+     * sistema são considerados.
+     *
+     * @return Configuração carregada.
+     */
+    public static Configuracao carregar() {
+        Properties propriedades = new Properties();
+        try (InputStream in = Configuracao.class.getClassLoader().getResourceAsStream(ARQUIVO)) {
+            if (in != null) {
+                propriedades.load(in);
+            } else {
+                logger.warn("Arquivo de configuração [{}] não encontrado; usando valores padrão.", ARQUIVO);
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao carregar configuração [{}]: {}", ARQUIVO, e.getMessage(), e);
+        }
+        return new Configuracao(propriedades);
+    }
+
+    /**
+     * Retorna o valor textual de uma chave.
+     *
+     * @param chave Chave da configuração.
+     * @param padrao Valor retornado quando a chave não está definida.
+     * @return Valor configurado ou o padrão.
+     */
+    public String getTexto(String chave, String padrao) {
+        String valor = System.getProperty(chave, propriedades.getProperty(chave));
+        if (valor == null || valor.trim().isEmpty()) {
+            return padrao;
+        }
+        return valor.trim();
+    }
+
+    /**
+     * Retorna o valor inteiro de uma chave.
+     *
+     * @param chave Chave da configuração.
+     * @param padrao Valor retornado quando a chave não está definida.
+     * @return Valor configurado ou o padrão.
+     * @throws IllegalArgumentException Caso o valor configurado não seja numérico.
+     */
+    public int getInteiro(String chave, int padrao) {
+        return (int) getLongo(chave, padrao);
+    }
+
+    /**
+     * Retorna o valor long de uma chave.
+     *
+     * @param chave Chave da configuração.
+     * @param padrao Valor retornado quando a chave não está definida.
+     * @return Valor configurado ou o padrão.
+     * @throws IllegalArgumentException Caso o valor configurado não seja numérico.
+     */
+    public long getLongo(String chave, long padrao) {
+        String valor = getTexto(chave, null);
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para [" + chave + "]: " + valor, e);
+        }
+    }
+
+    /**
+     * Retorna o valor booleano de uma chave.
+     *
+     * @param chave Chave da configuração.
+     * @param padrao Valor retornado quando a chave não está definida.
+     * @return Valor configurado ou o padrão.
+     */
+    public boolean getBooleano(String chave, boolean padrao) {
+        String valor = getTexto(chave, null);
+        return valor == null ? padrao : Boolean.parseBoolean(valor);
+    }
+
+    /**
+     * Retorna uma lista de valores separados por vírgula.
+     *
+     * @param chave Chave da configuração.
+     * @param padrao Valor único retornado quando a chave não está definida.
+     * @return Lista de valores, sem espaços nem itens vazios.
+     */
+    public List<String> getLista(String chave, String padrao) {
+        String valor = getTexto(chave, padrao);
+        if (valor == null) {
+            return Collections.emptyList();
+        }
+        List<String> itens = new ArrayList<>();
+        for (String item : valor.split(",")) {
+            if (!item.trim().isEmpty()) {
+                itens.add(item.trim());
+            }
+        }
+        return itens;
+    }
+
+    /**
+     * Retorna uma lista de valores separados por vírgula que não pode ser vazia.
+     *
+     * @param chave Chave da configuração.
+     * @param padrao Valor único retornado quando a chave não está definida.
+     * @return Lista com ao menos um valor.
+     * @throws IllegalArgumentException Caso o valor configurado não contenha itens, como {@code " ,"}.
+     */
+    public List<String> getListaObrigatoria(String chave, String padrao) {
+        List<String> itens = getLista(chave, padrao);
+        if (itens.isEmpty()) {
+            throw new IllegalArgumentException("Ao menos um valor deve ser informado em [" + chave + "]: "
+                    + getTexto(chave, padrao));
+        }
+        return itens;
+    }
+}
@@ -2,6 +2,10 @@ package com.leitor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.paho.client.mqttv3.MqttClient;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
@@ -14,6 +18,23 @@ import org.slf4j.LoggerFactory;
 import com.fazecast.jSerialComm.SerialPort;
 import com.fazecast.jSerialComm.SerialPortDataListener;
 import com.fazecast.jSerialComm.SerialPortEvent;
+import com.leitor.jfr.GravacaoJfr;
+import com.leitor.jfr.LeituraSerialEvento;
+import com.leitor.jfr.ProcessamentoQuadroEvento;
+import com.leitor.jfr.PublicacaoEvento;
+import com.leitor.mqtt.ClienteMqtt3;
+import com.leitor.mqtt.GerenciadorConexao;
+import com.leitor.mqtt.Publicador;
+import com.leitor.mqtt.PublicadorFragmentado;
+import com.leitor.mqtt.PublicadorMultiBroker;
+import com.leitor.mqtt.TransporteMqtt;
+import com.leitor.regras.Grandeza;
+import com.leitor.regras.MotorRegras;
+import com.leitor.regras.Regra;
+import com.leitor.serial.DecodificadorCobs;
+import com.leitor.serial.ParametrosSerial;
+import com.leitor.serial.ProtocoloSerial;
+import com.leitor.serial.VigiaPortaSerial;
 
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
@@ -36,16 +57,47 @@ public class SensorWorker {
     // Configurações de conexão MQTT
     private MqttConnectOptions connOpts;
 
+    // Único responsável por reconectar o cliente MQTT (nulo quando o cliente é injetado)
+    private GerenciadorConexao gerenciador;
+
+    // Publicador para múltiplos brokers ou conexões (nulo com um único cliente MQTT)
+    private Publicador publicador;
+
     // Listener para eventos da porta serial
     private SerialPortDataListener serialPortDataListener;
 
     // Configuração de retry para publicação MQTT
     private final Retry retry;
 
+    // Vigia que reabre a porta serial em caso de travamento (nulo quando desabilitado)
+    private VigiaPortaSerial vigia;
+
+    // Protocolo configurado e o protocolo em uso (AUTO até a detecção), e decodificador do protocolo binário
+    private ProtocoloSerial protocoloConfigurado = ProtocoloSerial.ASCII;
+    private volatile ProtocoloSerial protocolo = ProtocoloSerial.ASCII;
+    private final DecodificadorCobs decodificador = new DecodificadorCobs();
+    private final DecodificadorCobs.Receptor receptorDeteccao = this::detectarCobs;
+
+    // Leituras binárias decodificadas de um bloco, publicadas após o fim do evento de processamento
+    private int[] canaisPendentes = new int[8];
+    private float[] valoresPendentes = new float[8];
+    private long[] instantesPendentes = new long[8];
+    private int pendentes;
+    private final DecodificadorCobs.Receptor receptorPendentes = this::guardarLeitura;
+
+    // Texto recebido durante a detecção automática, até a primeira linha completa válida
+    private final StringBuilder textoDeteccao = new StringBuilder();
+    private static final int LIMITE_TEXTO_DETECCAO = 256;
+
+    // Regras de alarme avaliadas no leitor (nulo quando não configuradas)
+    private MotorRegras regras;
+    private final MotorRegras.Disparo disparoAlarme = this::publicarAlarme;
+
     // Constantes de configuração MQTT
     private static final String MQTT_BROKER = "tcp://localhost:1883";
     private static final String TOPICO_TEMPERATURA = "sensores/temperatura";
     private static final String TOPICO_UMIDADE = "sensores/umidade";
+    private static final String TOPICO_ALARMES = "sensores/alarmes";
 
     /**
      * Construtor principal da classe para uso em produção.
@@ -55,23 +107,61 @@ public class SensorWorker {
      * @throws MqttException Caso ocorra algum erro na inicialização do cliente MQTT.
      */
     public SensorWorker(SerialPort portaSerial, String clientId) throws MqttException {
+        this(portaSerial, clientId, Configuracao.carregar());
+    }
+
+    /**
+     * Construtor que utiliza uma configuração explícita. Com mais de um broker em
+     * {@code mqtt.brokers}, as mensagens são publicadas em todos eles em paralelo;
+     * com {@code mqtt.fragmentos} maior que 1, os tópicos são distribuídos entre
+     * várias conexões com o mesmo broker. Com {@code mqtt.transporte=v5}, as
+     * conexões usam MQTT 5.
+     *
+     * @param portaSerial Objeto da porta serial configurado.
+     * @param clientId Identificador único para o cliente MQTT.
+     * @param configuracao Configuração do leitor.
+     * @throws MqttException Caso ocorra algum erro na inicialização do cliente MQTT.
+     * @throws IllegalArgumentException Caso {@code mqtt.brokers} não contenha nenhum broker.
+     */
+    public SensorWorker(SerialPort portaSerial, String clientId, Configuracao configuracao) throws MqttException {
         this.portaSerial = portaSerial;
-        this.mqttClient = new MqttClient(MQTT_BROKER, clientId, new MemoryPersistence());
+        this.vigia = VigiaPortaSerial.criar(portaSerial, configuracao, this::reinstalarListener);
+        this.protocoloConfigurado = ProtocoloSerial.de(configuracao);
+        this.protocolo = protocoloConfigurado;
+        this.regras = MotorRegras.criar(configuracao);
+        List<String> brokers = configuracao.getListaObrigatoria("mqtt.brokers", MQTT_BROKER);
+        TransporteMqtt transporte = TransporteMqtt.de(configuracao);
+        int fragmentos = configuracao.getInteiro("mqtt.fragmentos", 1);
+        if (brokers.size() > 1 || (fragmentos <= 1 && transporte == TransporteMqtt.V5)) {
+            this.publicador = PublicadorMultiBroker.criar(configuracao, clientId);
+            this.retry = RetryRegistry.ofDefaults().retry("mqttRetry");
+            logger.info("Publicando em {} broker(s) MQTT {}: {}", brokers.size(), transporte, brokers);
+            return;
+        }
+        if (fragmentos > 1) {
+            this.publicador = PublicadorFragmentado.criar(configuracao, clientId);
+            this.retry = RetryRegistry.ofDefaults().retry("mqttRetry");
+            logger.info("Publicando no broker MQTT [{}] com {} conexões.", brokers.get(0), fragmentos);
+            return;
+        }
+        this.mqttClient = new MqttClient(brokers.get(0), clientId, new MemoryPersistence());
 
-        // Configurações de conexão MQTT
+        // Configurações de conexão MQTT; a reconexão fica a cargo do gerenciador
         this.connOpts = new MqttConnectOptions();
         connOpts.setCleanSession(true);
-        connOpts.setAutomaticReconnect(true);
+        connOpts.setAutomaticReconnect(false);
         connOpts.setConnectionTimeout(10);
 
-        // Tentativa de conexão ao broker MQTT
-        try {
-            mqttClient.connect(connOpts);
+        // Primeira tentativa de conexão ao broker MQTT, feita pelo gerenciador
+        this.gerenciador = GerenciadorConexao.criar(brokers.get(0), new ClienteMqtt3(mqttClient, connOpts),
+                configuracao);
+        gerenciador.iniciar();
+        if (gerenciador.aguardarPrimeiraTentativa(TimeUnit.SECONDS.toMillis(15))) {
             logger.info("Conectado ao broker MQTT");
             System.out.println("Conectado ao broker MQTT");
-        } catch (MqttException e) {
-            logger.error("Erro ao conectar no MQTT: {}", e.getMessage(), e);
-            System.out.print("Erro ao conectar no MQTT: " + e.getMessage());
+        } else {
+            logger.error("Erro ao conectar no MQTT; novas tentativas seguem em segundo plano.");
+            System.out.print("Erro ao conectar no MQTT; novas tentativas seguem em segundo plano.");
         }
 
         // Configuração de política de retry para publicação MQTT
@@ -95,50 +185,107 @@ public class SensorWorker {
     }
 
     /**
-     * Inicia a leitura de dados da porta serial e configura os listeners.
+     * Construtor que utiliza um publicador já configurado, como o de múltiplos brokers
+     * ou o fragmentado.
+     *
+     * @param portaSerial Objeto da porta serial configurado.
+     * @param publicador Publicador responsável pelo envio das mensagens.
+     */
+    public SensorWorker(SerialPort portaSerial, Publicador publicador) {
+        this.portaSerial = portaSerial;
+        this.publicador = publicador;
+        this.retry = RetryRegistry.ofDefaults().retry("mqttRetry");
+    }
+
+    /**
+     * Inicia a leitura de dados da porta serial e configura os listeners. Com o
+     * vigia habilitado, a porta é reaberta automaticamente caso a abertura falhe
+     * ou a leitura trave.
      */
     public void iniciarLeitura() {
         if (portaSerial.openPort()) {
             logger.info("Porta serial [{}] aberta com sucesso.", portaSerial.getSystemPortName());
             System.out.println("Porta serial [" + portaSerial.getSystemPortName() + "] aberta com sucesso.");
+            portaSerial.addDataListener(criarListener());
+        } else {
+            logger.warn("Não foi possível abrir a porta serial [{}].", portaSerial.getSystemPortName());
+            System.out.println("Não foi possível abrir a porta serial [" + portaSerial.getSystemPortName() + "].");
+        }
+        if (vigia != null) {
+            vigia.iniciar();
+        }
+    }
 
-            // Configura o listener para eventos de dados disponíveis na porta serial
-            synchronized (this) {
-                serialPortDataListener = new SerialPortDataListener() {
-                    @Override
-                    public int getListeningEvents() {
-                        return SerialPort.LISTENING_EVENT_DATA_AVAILABLE;
-                    }
+    /**
+     * Configura o listener para eventos de dados disponíveis na porta serial.
+     *
+     * @return O listener configurado.
+     */
+    private synchronized SerialPortDataListener criarListener() {
+        serialPortDataListener = new SerialPortDataListener() {
+            @Override
+            public int getListeningEvents() {
+                return SerialPort.LISTENING_EVENT_DATA_AVAILABLE;
+            }
 
-                    @Override
-                    public void serialEvent(SerialPortEvent event) {
-                        if (event.getEventType() == SerialPort.LISTENING_EVENT_DATA_AVAILABLE) {
-                            byte[] buffer = new byte[portaSerial.bytesAvailable()];
-                            portaSerial.readBytes(buffer, buffer.length);
-                            String data = new String(buffer, StandardCharsets.UTF_8);
-                            processarDados(data);
-                        }
+            @Override
+            public void serialEvent(SerialPortEvent event) {
+                if (event.getEventType() == SerialPort.LISTENING_EVENT_DATA_AVAILABLE) {
+                    LeituraSerialEvento evento = new LeituraSerialEvento();
+                    evento.begin();
+                    byte[] buffer = new byte[portaSerial.bytesAvailable()];
+                    int lidos = Math.max(portaSerial.readBytes(buffer, buffer.length), 0);
+                    evento.end();
+                    if (evento.shouldCommit()) {
+                        evento.porta = portaSerial.getSystemPortName();
+                        evento.bytes = lidos;
+                        evento.commit();
                     }
-                };
+                    processarBytes(buffer, lidos);
+                }
             }
+        };
+        return serialPortDataListener;
+    }
 
-            portaSerial.addDataListener(serialPortDataListener);
-        } else {
-            logger.warn("Não foi possível abrir a porta serial [{}].", portaSerial.getSystemPortName());
-            System.out.println("Não foi possível abrir a porta serial [" + portaSerial.getSystemPortName() + "].");
-        }
+    /**
+     * Reinstala o listener após o vigia reabrir a porta serial, descartando o
+     * quadro binário que estava incompleto. Com detecção automática, o
+     * protocolo volta a ser detectado, pois o travamento pode ter sido causado
+     * por uma detecção equivocada.
+     */
+    private void reinstalarListener() {
+        decodificador.reiniciar();
+        textoDeteccao.setLength(0);
+        protocolo = protocoloConfigurado;
+        portaSerial.addDataListener(criarListener());
+        logger.info("Listener reinstalado na porta serial [{}].", portaSerial.getSystemPortName());
     }
 
     /**
      * Encerra a leitura da porta serial e desconecta o cliente MQTT.
      */
     public void pararLeitura() {
+        if (vigia != null) {
+            vigia.close();
+        }
         if (portaSerial.isOpen()) {
             portaSerial.removeDataListener();
             portaSerial.closePort();
             logger.info("Porta serial [{}] fechada.", portaSerial.getSystemPortName());
             System.out.println("Porta serial [" + portaSerial.getSystemPortName() + "] fechada.");
         }
+        if (publicador != null) {
+            publicador.close();
+            logger.info("Conexões MQTT encerradas.");
+            System.out.println("Conexões MQTT encerradas.");
+        }
+        if (gerenciador != null) {
+            gerenciador.close();
+            logger.info("Conexão MQTT encerrada.");
+            System.out.println("Conexão MQTT encerrada.");
+            return;
+        }
         try {
             if (mqttClient != null && mqttClient.isConnected()) {
                 mqttClient.disconnect();
@@ -152,24 +299,150 @@ public class SensorWorker {
         }
     }
 
+    /**
+     * Encaminha os bytes recebidos ao decodificador do protocolo do sensor,
+     * detectando o protocolo quando configurado como automático.
+     *
+     * @param dados Bytes recebidos pela porta serial.
+     * @param tamanho Quantidade de bytes válidos.
+     */
+    void processarBytes(byte[] dados, int tamanho) {
+        if (protocolo == ProtocoloSerial.AUTO) {
+            detectarProtocolo(dados, tamanho);
+            return;
+        }
+        if (protocolo == ProtocoloSerial.COBS) {
+            ProcessamentoQuadroEvento evento = new ProcessamentoQuadroEvento();
+            long validos = decodificador.getQuadrosValidos();
+            long descartados = decodificador.getQuadrosDescartados();
+            evento.begin();
+            pendentes = 0;
+            decodificador.decodificar(dados, tamanho, receptorPendentes);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.protocolo = ProtocoloSerial.COBS.name();
+                evento.linhas = (int) (decodificador.getQuadrosValidos() - validos);
+                evento.desconhecidas = (int) (decodificador.getQuadrosDescartados() - descartados);
+                evento.commit();
+            }
+            // A publicação fica fora do evento, que mede apenas a decodificação
+            for (int i = 0; i < pendentes; i++) {
+                processarLeitura(canaisPendentes[i], valoresPendentes[i], instantesPendentes[i]);
+            }
+        } else {
+            processarDados(new String(dados, 0, tamanho, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Detecção automática: os bytes são entregues ao decodificador binário e
+     * acumulados como texto. O protocolo só é fixado por um quadro com CRC
+     * válido ou por uma linha ASCII completa e válida, de modo que bytes de
+     * ruído ou um fluxo iniciado no meio de um quadro não decidem a detecção.
+     */
+    private void detectarProtocolo(byte[] dados, int tamanho) {
+        decodificador.decodificar(dados, tamanho, receptorDeteccao);
+        if (protocolo != ProtocoloSerial.AUTO) {
+            textoDeteccao.setLength(0);
+            return;
+        }
+        textoDeteccao.append(new String(dados, 0, tamanho, StandardCharsets.UTF_8));
+        String texto = textoDeteccao.toString();
+        if (ProtocoloSerial.contemLeituraAscii(texto)) {
+            protocolo = ProtocoloSerial.ASCII;
+            logger.info("Protocolo ASCII detectado na porta serial [{}].", portaSerial.getSystemPortName());
+            textoDeteccao.setLength(0);
+            processarDados(texto);
+            return;
+        }
+        // Mantém apenas a linha em formação, limitada para não acumular ruído
+        int fimLinha = textoDeteccao.lastIndexOf("\n");
+        if (fimLinha >= 0) {
+            textoDeteccao.delete(0, fimLinha + 1);
+        }
+        if (textoDeteccao.length() > LIMITE_TEXTO_DETECCAO) {
+            textoDeteccao.delete(0, textoDeteccao.length() - LIMITE_TEXTO_DETECCAO);
+        }
+        logger.debug("Protocolo da porta serial ainda não identificado; {} bytes aguardando.", tamanho);
+    }
+
+    /**
+     * Recebe o primeiro quadro binário válido durante a detecção, fixando o
+     * protocolo COBS, e publica a leitura.
+     */
+    private void detectarCobs(int canal, float valor, long instante) {
+        if (protocolo == ProtocoloSerial.AUTO) {
+            protocolo = ProtocoloSerial.COBS;
+            logger.info("Protocolo COBS detectado na porta serial [{}].", portaSerial.getSystemPortName());
+        }
+        processarLeitura(canal, valor, instante);
+    }
+
+    /**
+     * Guarda uma leitura decodificada para publicação após a decodificação do bloco.
+     */
+    private void guardarLeitura(int canal, float valor, long instante) {
+        if (pendentes == canaisPendentes.length) {
+            canaisPendentes = Arrays.copyOf(canaisPendentes, pendentes * 2);
+            valoresPendentes = Arrays.copyOf(valoresPendentes, pendentes * 2);
+            instantesPendentes = Arrays.copyOf(instantesPendentes, pendentes * 2);
+        }
+        canaisPendentes[pendentes] = canal;
+        valoresPendentes[pendentes] = valor;
+        instantesPendentes[pendentes] = instante;
+        pendentes++;
+    }
+
+    /**
+     * Publica uma leitura decodificada do protocolo binário.
+     *
+     * @param canal Canal da leitura.
+     * @param valor Valor medido.
+     * @param instante Instante da leitura no sensor, em milissegundos desde a época.
+     */
+    private void processarLeitura(int canal, float valor, long instante) {
+        if (canal == DecodificadorCobs.CANAL_TEMPERATURA) {
+            registrarQuadroValido();
+            avaliarRegras(Grandeza.TEMPERATURA, valor, instante);
+            publicarNoMQTT(TOPICO_TEMPERATURA, Float.toString(valor), instante);
+        } else if (canal == DecodificadorCobs.CANAL_UMIDADE) {
+            registrarQuadroValido();
+            avaliarRegras(Grandeza.UMIDADE, valor, instante);
+            publicarNoMQTT(TOPICO_UMIDADE, Float.toString(valor), instante);
+        } else {
+            logger.warn("Canal desconhecido recebido: {}", canal);
+            System.out.println("Canal desconhecido recebido: " + canal);
+        }
+    }
+
     /**
      * Processa os dados recebidos pela porta serial e publica no MQTT quando aplicável.
+     * As linhas são interpretadas primeiro e publicadas depois, para que o evento
+     * de processamento não inclua o tempo de publicação.
      *
      * @param dados Dados recebidos pela porta serial.
      */
     void processarDados(String dados) {
         logger.info("Dados recebidos na porta serial: {}", dados);
         System.out.println("Dados recebidos na porta serial: " + dados);
+        long instanteLeitura = System.currentTimeMillis();
+        ProcessamentoQuadroEvento evento = new ProcessamentoQuadroEvento();
+        evento.begin();
+        int processadas = 0;
+        int desconhecidas = 0;
+        List<LeituraTexto> leituras = new ArrayList<>();
         try {
             String[] linhas = dados.split("\\r?\\n");
             for (String linha : linhas) {
+                if (!linha.trim().isEmpty()) {
+                    processadas++;
+                }
                 if (linha.startsWith("TEMP:")) {
-                    String temperatura = linha.substring(5).trim();
-                    publicarNoMQTT(TOPICO_TEMPERATURA, temperatura);
+                    leituras.add(new LeituraTexto(Grandeza.TEMPERATURA, TOPICO_TEMPERATURA, linha.substring(5).trim()));
                 } else if (linha.startsWith("UMID:")) {
-                    String umidade = linha.substring(5).trim();
-                    publicarNoMQTT(TOPICO_UMIDADE, umidade);
+                    leituras.add(new LeituraTexto(Grandeza.UMIDADE, TOPICO_UMIDADE, linha.substring(5).trim()));
                 } else if (!linha.trim().isEmpty()) {
+                    desconhecidas++;
                     logger.warn("Dados desconhecidos recebidos: {}", linha);
                     System.out.println("Dados desconhecidos recebidos: " + linha);
                 }
@@ -178,6 +451,91 @@ public class SensorWorker {
             logger.error("Erro ao processar dados: {}", e.getMessage(), e);
             System.out.println("Erro ao processar dados: " + e.getMessage());
         }
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.protocolo = ProtocoloSerial.ASCII.name();
+            evento.linhas = processadas;
+            evento.desconhecidas = desconhecidas;
+            evento.commit();
+        }
+        try {
+            for (LeituraTexto leitura : leituras) {
+                registrarQuadroValido();
+                avaliarRegras(leitura.grandeza, leitura.valor, instanteLeitura);
+                publicarNoMQTT(leitura.topico, leitura.valor, instanteLeitura);
+            }
+        } catch (Exception e) {
+            logger.error("Erro ao processar dados: {}", e.getMessage(), e);
+            System.out.println("Erro ao processar dados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Leitura interpretada de uma linha de texto, aguardando publicação.
+     */
+    private static final class LeituraTexto {
+
+        private final Grandeza grandeza;
+        private final String topico;
+        private final String valor;
+
+        private LeituraTexto(Grandeza grandeza, String topico, String valor) {
+            this.grandeza = grandeza;
+            this.topico = topico;
+            this.valor = valor;
+        }
+    }
+
+    /**
+     * Avalia as regras de alarme sobre uma leitura recebida em texto. O valor só
+     * é convertido quando há regras para a grandeza. É chamado antes da
+     * publicação da leitura, para que o alarme não aguarde a sua confirmação.
+     */
+    private void avaliarRegras(Grandeza grandeza, String valor, long instante) {
+        if (regras == null || !regras.possuiRegras(grandeza)) {
+            return;
+        }
+        float numero;
+        try {
+            numero = Float.parseFloat(valor);
+        } catch (NumberFormatException e) {
+            logger.debug("Leitura não numérica ignorada pelas regras: {}", valor);
+            return;
+        }
+        regras.avaliar(grandeza, numero, instante, disparoAlarme);
+    }
+
+    private void avaliarRegras(Grandeza grandeza, float valor, long instante) {
+        if (regras != null) {
+            regras.avaliar(grandeza, valor, instante, disparoAlarme);
+        }
+    }
+
+    /**
+     * Publica um alarme no tópico de alarmes, à frente das leituras pendentes.
+     *
+     * @param regra Regra que disparou.
+     * @param valor Valor que disparou o alarme.
+     * @param instante Instante da leitura, em milissegundos desde a época.
+     */
+    private void publicarAlarme(Regra regra, float valor, long instante) {
+        String alarme = "{\"regra\":\"" + regra.getExpressao() + "\",\"grandeza\":\""
+                + regra.getGrandeza().name().toLowerCase() + "\",\"valor\":" + valor
+                + ",\"instante\":" + instante + "}";
+        logger.warn("Alarme disparado [{}]: {}", regra, valor);
+        System.out.println("Alarme disparado [" + regra + "]: " + valor);
+        if (publicador != null) {
+            publicador.publicarPrioritario(TOPICO_ALARMES, alarme, instante)
+                    .whenComplete((ok, ex) -> registrarResultado(TOPICO_ALARMES, alarme, ex));
+        } else {
+            publicarNoMQTT(TOPICO_ALARMES, alarme, instante);
+        }
+    }
+
+    private void registrarQuadroValido() {
+        if (vigia != null) {
+            vigia.registrarQuadroValido();
+        }
     }
 
     /**
@@ -187,9 +545,27 @@ public class SensorWorker {
      * @param mensagem Conteúdo da mensagem a ser publicada.
      */
     public void publicarNoMQTT(String topico, String mensagem) {
+        publicarNoMQTT(topico, mensagem, System.currentTimeMillis());
+    }
+
+    /**
+     * Publica uma mensagem no tópico MQTT especificado, informando o instante da
+     * leitura. O instante é transmitido apenas pelo transporte MQTT 5.
+     *
+     * @param topico Tópico MQTT onde a mensagem será publicada.
+     * @param mensagem Conteúdo da mensagem a ser publicada.
+     * @param instanteLeitura Instante da leitura, em milissegundos desde a época.
+     */
+    public void publicarNoMQTT(String topico, String mensagem, long instanteLeitura) {
+        if (publicador != null) {
+            publicador.publicar(topico, mensagem, instanteLeitura)
+                    .whenComplete((ok, ex) -> registrarResultado(topico, mensagem, ex));
+            return;
+        }
+        int[] tentativa = {0};
         Runnable publicarRunnable = () -> {
             try {
-                doPublicar(topico, mensagem);
+                doPublicar(topico, mensagem, ++tentativa[0]);
             } catch (MqttException e) {
                 throw new RuntimeException(e);
             }
@@ -202,25 +578,58 @@ public class SensorWorker {
         }
     }
 
+    private void registrarResultado(String topico, String mensagem, Throwable ex) {
+        if (ex != null) {
+            logger.error("Erro ao publicar no MQTT: {}", ex.getMessage(), ex);
+            System.out.println("Erro ao publicar no MQTT: " + ex.getMessage());
+        } else {
+            logger.info("Publicado no tópico [{}]: {}", topico, mensagem);
+        }
+    }
+
     /**
-     * Lógica principal para publicar uma mensagem no MQTT.
+     * Lógica principal para publicar uma mensagem no MQTT. Desconectado, o
+     * publicador não reconecta: a falha é devolvida à política de retry
+     * enquanto o gerenciador de conexão restabelece a sessão.
      *
      * @param topico Tópico MQTT onde a mensagem será publicada.
      * @param mensagem Conteúdo da mensagem a ser publicada.
+     * @param tentativa Número da tentativa, a partir de 1.
      * @throws MqttException Caso ocorra um erro ao publicar.
      */
-    private void doPublicar(String topico, String mensagem) throws MqttException {
-        if (!mqttClient.isConnected()) {
-            logger.warn("Cliente MQTT desconectado; tentando reconexão...");
-            System.out.println("Cliente MQTT desconectado; tentando reconexão...");
-            mqttClient.reconnect();
-        }
-        if (!mqttClient.isConnected()) {
-            throw new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED);
-        }
-        MqttMessage msg = new MqttMessage(mensagem.getBytes(StandardCharsets.UTF_8));
-        msg.setQos(2);
-        mqttClient.publish(topico, msg);
+    private void doPublicar(String topico, String mensagem, int tentativa) throws MqttException {
+        PublicacaoEvento evento = new PublicacaoEvento();
+        evento.begin();
+        boolean sucesso = false;
+        try {
+            boolean conectado = gerenciador != null ? gerenciador.isConectado() : mqttClient.isConnected();
+            if (!conectado) {
+                logger.warn("Cliente MQTT desconectado; aguardando reconexão...");
+                System.out.println("Cliente MQTT desconectado; aguardando reconexão...");
+                throw new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED);
+            }
+            MqttMessage msg = new MqttMessage(mensagem.getBytes(StandardCharsets.UTF_8));
+            msg.setQos(2);
+            try {
+                mqttClient.publish(topico, msg);
+                sucesso = true;
+            } catch (MqttException e) {
+                if (gerenciador != null) {
+                    gerenciador.sinalizarFalha();
+                }
+                throw e;
+            }
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.broker = mqttClient.getServerURI();
+                evento.topico = topico;
+                evento.qos = 2;
+                evento.tentativa = tentativa;
+                evento.sucesso = sucesso;
+                evento.commit();
+            }
+        }
         logger.info("Publicado no tópico [{}]: {}", topico, mensagem);
         System.out.println("Publicado no tópico [" + topico + "]: " + mensagem);
     }
@@ -247,17 +656,85 @@ public class SensorWorker {
         this.serialPortDataListener = listener;
     }
 
+    /**
+     * Define o protocolo do sensor, em substituição a {@code serial.protocolo}.
+     *
+     * @param protocolo Protocolo, ou {@link ProtocoloSerial#AUTO} para detecção automática.
+     */
+    public void setProtocolo(ProtocoloSerial protocolo) {
+        this.protocoloConfigurado = protocolo;
+        this.protocolo = protocolo;
+        textoDeteccao.setLength(0);
+    }
+
+    /**
+     * Retorna o protocolo em uso na porta serial.
+     *
+     * @return Protocolo em uso; {@link ProtocoloSerial#AUTO} enquanto não detectado.
+     */
+    public ProtocoloSerial getProtocolo() {
+        return protocolo;
+    }
+
+    /**
+     * Retorna o decodificador do protocolo binário, para consulta dos quadros
+     * válidos e descartados.
+     *
+     * @return O decodificador.
+     */
+    public DecodificadorCobs getDecodificador() {
+        return decodificador;
+    }
+
+    /**
+     * Retorna o gerenciador da conexão MQTT, para consulta do estado, das quedas
+     * e da latência de reconexão.
+     *
+     * @return O gerenciador, ou {@code null} com publicador próprio ou cliente injetado.
+     */
+    public GerenciadorConexao getGerenciador() {
+        return gerenciador;
+    }
+
+    /**
+     * Define o motor de regras de alarme, em substituição à chave {@code regras}.
+     *
+     * @param regras Motor de regras, ou {@code null} para não avaliar alarmes.
+     */
+    public void setMotorRegras(MotorRegras regras) {
+        this.regras = regras;
+    }
+
+    /**
+     * Retorna o motor de regras de alarme, para consulta das regras e dos disparos.
+     *
+     * @return O motor, ou {@code null} caso nenhuma regra esteja configurada.
+     */
+    public MotorRegras getMotorRegras() {
+        return regras;
+    }
+
+    /**
+     * Retorna o vigia da porta serial, para consulta de recuperações e tempo indisponível.
+     *
+     * @return O vigia, ou {@code null} caso esteja desabilitado.
+     */
+    public VigiaPortaSerial getVigia() {
+        return vigia;
+    }
+
     /**
      * Metodo principal para execucao do programa.
      *
      * @param args Argumentos de linha de comando.
      */
     public static void main(String[] args) {
-        SerialPort portaSerial = SerialPort.getCommPort("/dev/pts/3");
-        portaSerial.setComPortParameters(9600, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
-        portaSerial.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
+        Configuracao configuracao = Configuracao.carregar();
+        SerialPort portaSerial = SerialPort.getCommPort(configuracao.getTexto("serial.porta", "/dev/pts/3"));
+        ParametrosSerial.aplicar(portaSerial, configuracao);
+        GravacaoJfr.iniciar(configuracao);
         try {
-            SensorWorker worker = new SensorWorker(portaSerial, "SensorWorkerClient");
+            SensorWorker worker = new SensorWorker(portaSerial, "SensorWorkerClient", configuracao);
 
             // Adiciona o shutdown hook para encerramento suave
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -0,0 +1,70 @@
+package com.leitor.jfr;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.leitor.Configuracao;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+/**
+ * Gravação JFR dos eventos do leitor iniciada pela própria aplicação, com os
+ * limiares de duração lidos da configuração. Em gravações iniciadas por
+ * {@code -XX:StartFlightRecording}, valem os limiares padrão de cada evento,
+ * que podem ser alterados em um arquivo {@code .jfc}.
+ * <p>
+ * Sem gravação ativa, os eventos ficam desabilitados e a instrumentação se
+ * reduz a uma verificação por evento.
+ */
+public final class GravacaoJfr {
+
+    private static final Logger logger = LoggerFactory.getLogger(GravacaoJfr.class);
+
+    private GravacaoJfr() {
+    }
+
+    /**
+     * Inicia a gravação quando {@code jfr.habilitado=true}. O arquivo
+     * {@code jfr.arquivo} é gravado ao encerrar a JVM. Os dados mantidos em
+     * disco são limitados por {@code jfr.max.idade.min} e
+     * {@code jfr.max.tamanho.mb}; os mais antigos são descartados.
+     *
+     * @param configuracao Configuração do leitor.
+     * @return A gravação iniciada, ou {@code null} caso esteja desabilitada.
+     */
+    public static Recording iniciar(Configuracao configuracao) {
+        if (!configuracao.getBooleano("jfr.habilitado", false)) {
+            return null;
+        }
+        Recording gravacao = new Recording();
+        gravacao.setName("leitor");
+        habilitar(gravacao, LeituraSerialEvento.class, configuracao.getLongo("jfr.limiar.leitura.ms", 1));
+        habilitar(gravacao, ProcessamentoQuadroEvento.class, configuracao.getLongo("jfr.limiar.processamento.ms", 1));
+        habilitar(gravacao, PublicacaoEvento.class, configuracao.getLongo("jfr.limiar.publicacao.ms", 10));
+        habilitar(gravacao, ReconexaoEvento.class, configuracao.getLongo("jfr.limiar.reconexao.ms", 0));
+        gravacao.setToDisk(true);
+        gravacao.setMaxAge(Duration.ofMinutes(configuracao.getLongo("jfr.max.idade.min", 360)));
+        gravacao.setMaxSize(configuracao.getLongo("jfr.max.tamanho.mb", 250) * 1024 * 1024);
+        gravacao.setDumpOnExit(true);
+        String arquivo = configuracao.getTexto("jfr.arquivo", "leitor.jfr");
+        try {
+            gravacao.setDestination(Paths.get(arquivo));
+        } catch (IOException e) {
+            logger.error("Destino da gravação JFR [{}] inválido: {}", arquivo, e.getMessage(), e);
+            gravacao.close();
+            return null;
+        }
+        gravacao.start();
+        logger.info("Gravação JFR iniciada; destino [{}].", arquivo);
+        return gravacao;
+    }
+
+    private static void habilitar(Recording gravacao, Class<? extends Event> evento, long limiarMs) {
+        gravacao.enable(evento).withThreshold(Duration.ofMillis(limiarMs)).withoutStackTrace();
+    }
+}
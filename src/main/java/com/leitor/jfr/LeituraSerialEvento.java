@@ -0,0 +1,30 @@
+package com.leitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de uma leitura de bytes da porta serial. A duração cobre a
+ * consulta dos bytes disponíveis e a cópia para o buffer.
+ */
+@Name("com.leitor.LeituraSerial")
+@Label("Leitura Serial")
+@Category({"Leitor IoT", "Serial"})
+@Description("Bytes lidos da porta serial a cada evento de dados disponíveis")
+@StackTrace(false)
+@Threshold("1 ms")
+public class LeituraSerialEvento extends Event {
+
+    @Label("Porta")
+    public String porta;
+
+    @Label("Bytes")
+    @DataAmount
+    public int bytes;
+}
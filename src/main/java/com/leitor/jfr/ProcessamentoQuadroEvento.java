@@ -0,0 +1,33 @@
+package com.leitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR do processamento de um bloco recebido da porta serial, do
+ * enquadramento até o encaminhamento das leituras ao publicador.
+ */
+@Name("com.leitor.ProcessamentoQuadro")
+@Label("Processamento de Quadro")
+@Category({"Leitor IoT", "Serial"})
+@Description("Linhas (ASCII) ou quadros (COBS) processados em um bloco recebido")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ProcessamentoQuadroEvento extends Event {
+
+    @Label("Protocolo")
+    public String protocolo;
+
+    @Label("Linhas")
+    @Description("Linhas ou quadros processados no bloco")
+    public int linhas;
+
+    @Label("Desconhecidas")
+    @Description("Linhas desconhecidas ou quadros descartados no bloco")
+    public int desconhecidas;
+}
@@ -0,0 +1,38 @@
+package com.leitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de uma tentativa de publicação MQTT. Cada nova tentativa da
+ * política de retry gera um evento próprio.
+ */
+@Name("com.leitor.PublicacaoMqtt")
+@Label("Publicação MQTT")
+@Category({"Leitor IoT", "MQTT"})
+@Description("Tentativa de publicação de uma mensagem em um broker MQTT")
+@StackTrace(false)
+@Threshold("10 ms")
+public class PublicacaoEvento extends Event {
+
+    @Label("Broker")
+    public String broker;
+
+    @Label("Tópico")
+    public String topico;
+
+    @Label("QoS")
+    public int qos;
+
+    @Label("Tentativa")
+    @Description("Número da tentativa, a partir de 1")
+    public int tentativa;
+
+    @Label("Sucesso")
+    public boolean sucesso;
+}
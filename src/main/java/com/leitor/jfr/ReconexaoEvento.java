@@ -0,0 +1,30 @@
+package com.leitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma reconexão MQTT. A duração vai da detecção da queda até a
+ * nova conexão.
+ */
+@Name("com.leitor.ReconexaoMqtt")
+@Label("Reconexão MQTT")
+@Category({"Leitor IoT", "MQTT"})
+@Description("Intervalo entre a queda da conexão com o broker e a reconexão")
+@StackTrace(false)
+public class ReconexaoEvento extends Event {
+
+    @Label("Broker")
+    public String broker;
+
+    @Label("Tentativas")
+    public int tentativas;
+
+    @Label("Quedas")
+    @Description("Quedas da conexão desde o início do leitor")
+    public long quedas;
+}
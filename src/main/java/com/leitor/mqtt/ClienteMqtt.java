@@ -0,0 +1,43 @@
+package com.leitor.mqtt;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+
+/**
+ * Transporte MQTT usado por uma {@link ConexaoBroker}. Permite trocar a versão
+ * do protocolo sem alterar as filas, o retry e o controle de saúde.
+ */
+public interface ClienteMqtt extends AutoCloseable {
+
+    /**
+     * Conecta ao broker.
+     *
+     * @throws MqttException Caso a conexão falhe.
+     */
+    void conectar() throws MqttException;
+
+    /**
+     * Indica se o cliente está conectado ao broker.
+     *
+     * @return {@code true} caso esteja conectado.
+     */
+    boolean isConectado();
+
+    /**
+     * Publica uma mensagem.
+     *
+     * @param topico Tópico MQTT onde a mensagem será publicada.
+     * @param conteudo Conteúdo da mensagem.
+     * @param qos Qualidade de serviço.
+     * @param instanteLeitura Instante da leitura no sensor, em milissegundos desde a época.
+     * @throws MqttException Caso a publicação falhe.
+     */
+    void publicar(String topico, byte[] conteudo, int qos, long instanteLeitura) throws MqttException;
+
+    /**
+     * Desconecta do broker e libera os recursos do cliente.
+     *
+     * @throws MqttException Caso ocorra um erro ao desconectar.
+     */
+    @Override
+    void close() throws MqttException;
+}
@@ -0,0 +1,51 @@
+package com.leitor.mqtt;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+/**
+ * Transporte MQTT 3.1.1 sobre o cliente {@code org.eclipse.paho.client.mqttv3}.
+ * O instante da leitura não é transmitido, pois o protocolo não possui
+ * propriedades de mensagem.
+ */
+public class ClienteMqtt3 implements ClienteMqtt {
+
+    private final MqttClient cliente;
+    private final MqttConnectOptions opcoes;
+
+    /**
+     * @param cliente Cliente MQTT 3.1.1 exclusivo desta conexão.
+     * @param opcoes Opções usadas para conectar ao broker.
+     */
+    public ClienteMqtt3(MqttClient cliente, MqttConnectOptions opcoes) {
+        this.cliente = cliente;
+        this.opcoes = opcoes;
+    }
+
+    @Override
+    public void conectar() throws MqttException {
+        cliente.connect(opcoes);
+    }
+
+    @Override
+    public boolean isConectado() {
+        return cliente.isConnected();
+    }
+
+    @Override
+    public void publicar(String topico, byte[] conteudo, int qos, long instanteLeitura) throws MqttException {
+        MqttMessage msg = new MqttMessage(conteudo);
+        msg.setQos(qos);
+        cliente.publish(topico, msg);
+    }
+
+    @Override
+    public void close() throws MqttException {
+        if (cliente.isConnected()) {
+            cliente.disconnect();
+        }
+        cliente.close();
+    }
+}
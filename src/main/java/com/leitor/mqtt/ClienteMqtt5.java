@@ -0,0 +1,114 @@
+package com.leitor.mqtt;
+
+import java.util.Collections;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.mqttv5.client.IMqttToken;
+import org.eclipse.paho.mqttv5.client.MqttClient;
+import org.eclipse.paho.mqttv5.client.MqttConnectionOptions;
+import org.eclipse.paho.mqttv5.common.MqttMessage;
+import org.eclipse.paho.mqttv5.common.packet.MqttProperties;
+import org.eclipse.paho.mqttv5.common.packet.UserProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transporte MQTT 5 sobre o cliente {@code org.eclipse.paho.mqttv5}.
+ * <p>
+ * A sessão é retomada em reconexões ({@code cleanStart=false} com expiração
+ * de sessão). O instante da leitura segue na propriedade de usuário
+ * {@value #PROPRIEDADE_INSTANTE}, sem alterar o conteúdo. Quando o broker
+ * anuncia um Topic Alias Maximum no CONNACK, o Paho envia o tópico completo
+ * apenas na primeira publicação e, nas seguintes, somente o alias de dois bytes.
+ */
+public class ClienteMqtt5 implements ClienteMqtt {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClienteMqtt5.class);
+
+    // Propriedade de usuário com o instante da leitura, em milissegundos desde a época
+    static final String PROPRIEDADE_INSTANTE = "ts";
+
+    private final MqttClient cliente;
+    private final MqttConnectionOptions opcoes;
+
+    /**
+     * @param cliente Cliente MQTT 5 exclusivo desta conexão.
+     * @param opcoes Opções usadas para conectar ao broker.
+     */
+    public ClienteMqtt5(MqttClient cliente, MqttConnectionOptions opcoes) {
+        this.cliente = cliente;
+        this.opcoes = opcoes;
+    }
+
+    /**
+     * Monta as opções de conexão MQTT 5, com a sessão mantida pelo broker
+     * durante {@code expiracaoSessaoSegundos} após a desconexão.
+     *
+     * @param expiracaoSessaoSegundos Tempo de expiração da sessão.
+     * @return Opções de conexão com o broker.
+     */
+    public static MqttConnectionOptions criarOpcoes(long expiracaoSessaoSegundos) {
+        MqttConnectionOptions connOpts = new MqttConnectionOptions();
+        connOpts.setCleanStart(false);
+        connOpts.setSessionExpiryInterval(expiracaoSessaoSegundos);
+        connOpts.setAutomaticReconnect(false);
+        connOpts.setConnectionTimeout(10);
+        return connOpts;
+    }
+
+    @Override
+    public void conectar() throws MqttException {
+        try {
+            IMqttToken token = cliente.connectWithResult(opcoes);
+            MqttProperties resposta = token.getResponseProperties();
+            Integer aliasMaximo = resposta != null ? resposta.getTopicAliasMaximum() : null;
+            if (aliasMaximo == null || aliasMaximo == 0) {
+                logger.warn("Broker [{}] não aceita topic aliases; o tópico completo será enviado em cada mensagem.",
+                        cliente.getServerURI());
+            } else {
+                logger.info("Broker [{}] aceita até {} topic aliases.", cliente.getServerURI(), aliasMaximo);
+            }
+        } catch (org.eclipse.paho.mqttv5.common.MqttException e) {
+            throw converter(e);
+        }
+    }
+
+    @Override
+    public boolean isConectado() {
+        return cliente.isConnected();
+    }
+
+    @Override
+    public void publicar(String topico, byte[] conteudo, int qos, long instanteLeitura) throws MqttException {
+        MqttProperties propriedades = new MqttProperties();
+        propriedades.setUserProperties(Collections.singletonList(
+                new UserProperty(PROPRIEDADE_INSTANTE, Long.toString(instanteLeitura))));
+        MqttMessage msg = new MqttMessage(conteudo);
+        msg.setQos(qos);
+        msg.setProperties(propriedades);
+        try {
+            cliente.publish(topico, msg);
+        } catch (org.eclipse.paho.mqttv5.common.MqttException e) {
+            throw converter(e);
+        }
+    }
+
+    @Override
+    public void close() throws MqttException {
+        try {
+            if (cliente.isConnected()) {
+                cliente.disconnect();
+            }
+            cliente.close();
+        } catch (org.eclipse.paho.mqttv5.common.MqttException e) {
+            throw converter(e);
+        }
+    }
+
+    /**
+     * Converte a exceção do cliente MQTT 5 para o tipo tratado pelas conexões.
+     */
+    private static MqttException converter(org.eclipse.paho.mqttv5.common.MqttException e) {
+        return new MqttException(e.getReasonCode(), e);
+    }
+}
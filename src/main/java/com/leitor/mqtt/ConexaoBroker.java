@@ -0,0 +1,382 @@
+package com.leitor.mqtt;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.leitor.Configuracao;
+import com.leitor.jfr.PublicacaoEvento;
+
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+
+/**
+ * Conexão com um único broker MQTT, com fila, thread de envio, política de
+ * retry e estado de saúde próprios. Um broker lento ou fora do ar acumula
+ * mensagens apenas na sua fila, sem atrasar as demais conexões. A conexão e as
+ * reconexões ficam a cargo do {@link GerenciadorConexao}; a thread de envio
+ * apenas consulta o estado da conexão.
+ * <p>
+ * A thread de envio nunca dorme dentro da política de retry: a espera entre
+ * tentativas é agendada, e as mensagens prioritárias são enviadas nesse
+ * intervalo. Sem conexão, as mensagens aguardam na fila sem consumir
+ * tentativas.
+ */
+public class ConexaoBroker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConexaoBroker.class);
+
+    // Falhas consecutivas a partir das quais a conexão é considerada indisponível
+    private static final int LIMITE_FALHAS_INDISPONIVEL = 3;
+
+    // Tempo máximo que a thread de envio aguarda a primeira tentativa de conexão
+    private static final long ESPERA_PRIMEIRA_CONEXAO_MS = 15000;
+
+    // Capacidade da fila de mensagens prioritárias (alarmes)
+    private static final int CAPACIDADE_FILA_PRIORITARIA = 64;
+
+    // Espera máxima da thread de envio sem mensagens pendentes
+    private static final long ESPERA_FILA_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Intervalo de consulta do estado da conexão enquanto o broker está fora
+    private static final long ESPERA_CONEXAO_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Identificação do broker (URI) e se ele é o primário
+    private final String nome;
+    private final boolean primaria;
+
+    // Cliente MQTT exclusivo desta conexão (MQTT 3.1.1 ou 5) e o seu gerenciador
+    private final ClienteMqtt cliente;
+    private final GerenciadorConexao conexao;
+
+    // Política de retry exclusiva desta conexão
+    private final Retry retry;
+
+    // Filas de mensagens pendentes, a prioritária consumida primeiro, e thread responsável pelo envio
+    private final BlockingQueue<Entrega> fila;
+    private final BlockingQueue<Entrega> filaPrioritaria = new ArrayBlockingQueue<>(CAPACIDADE_FILA_PRIORITARIA);
+    private final Thread remetente;
+    private volatile boolean ativa = true;
+
+    // Estado de saúde e contadores
+    private volatile SaudeConexao saude = SaudeConexao.INDISPONIVEL;
+    private volatile int falhasConsecutivas;
+    private final AtomicLong publicadas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+
+    /**
+     * Cria a conexão com os valores padrão de reconexão e inicia as suas threads.
+     *
+     * @param nome Identificação do broker, normalmente a sua URI.
+     * @param primaria Indica se este é o broker primário.
+     * @param cliente Cliente MQTT exclusivo desta conexão.
+     * @param retryConfig Política de retry aplicada a cada mensagem.
+     * @param capacidadeFila Quantidade máxima de mensagens pendentes.
+     */
+    public ConexaoBroker(String nome, boolean primaria, ClienteMqtt cliente, RetryConfig retryConfig,
+                         int capacidadeFila) {
+        this(nome, primaria, new GerenciadorConexao(nome, cliente), retryConfig, capacidadeFila);
+    }
+
+    /**
+     * Cria a conexão, inicia o gerenciador de conexão e a thread de envio.
+     *
+     * @param nome Identificação do broker, normalmente a sua URI.
+     * @param primaria Indica se este é o broker primário.
+     * @param conexao Gerenciador da conexão com o cliente MQTT exclusivo desta conexão.
+     * @param retryConfig Política de retry aplicada a cada mensagem.
+     * @param capacidadeFila Quantidade máxima de mensagens pendentes.
+     */
+    public ConexaoBroker(String nome, boolean primaria, GerenciadorConexao conexao, RetryConfig retryConfig,
+                         int capacidadeFila) {
+        this.nome = nome;
+        this.primaria = primaria;
+        this.conexao = conexao;
+        this.cliente = conexao.getCliente();
+        this.retry = Retry.of("mqttRetry-" + nome, retryConfig);
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.remetente = new Thread(this::enviarPendentes, "mqtt-" + nome);
+        this.remetente.setDaemon(true);
+        this.conexao.iniciar();
+        this.remetente.start();
+    }
+
+    /**
+     * Monta as opções de conexão MQTT 3.1.1. A reconexão automática do Paho fica
+     * desabilitada porque o {@link GerenciadorConexao} é o único responsável
+     * por reconectar.
+     *
+     * @return Opções de conexão com o broker.
+     */
+    static MqttConnectOptions criarOpcoes() {
+        MqttConnectOptions connOpts = new MqttConnectOptions();
+        connOpts.setCleanSession(true);
+        connOpts.setAutomaticReconnect(false);
+        connOpts.setConnectionTimeout(10);
+        return connOpts;
+    }
+
+    /**
+     * Monta a política de retry por conexão, com espera exponencial limitada.
+     *
+     * @param configuracao Configuração do leitor.
+     * @return Política de retry.
+     */
+    public static RetryConfig criarRetryConfig(Configuracao configuracao) {
+        long espera = configuracao.getLongo("mqtt.retry.espera.ms", 2000);
+        long esperaMaxima = configuracao.getLongo("mqtt.retry.espera.max.ms", 30000);
+        return RetryConfig.custom()
+                .maxAttempts(configuracao.getInteiro("mqtt.retry.tentativas", 3))
+                .intervalFunction(IntervalFunction.ofExponentialBackoff(Duration.ofMillis(espera), 2.0,
+                        Duration.ofMillis(esperaMaxima)))
+                .build();
+    }
+
+    /**
+     * Coloca uma mensagem na fila desta conexão. Com a fila cheia, a mensagem
+     * mais antiga é descartada e registrada como falha nesta conexão.
+     *
+     * @param entrega Mensagem a ser enviada.
+     */
+    void enfileirar(Entrega entrega) {
+        enfileirar(fila, entrega);
+    }
+
+    /**
+     * Coloca uma mensagem na fila prioritária desta conexão. A thread de envio
+     * consome essa fila antes da fila normal, de modo que a mensagem não espera
+     * as leituras acumuladas.
+     *
+     * @param entrega Mensagem prioritária a ser enviada.
+     */
+    void enfileirarPrioritaria(Entrega entrega) {
+        enfileirar(filaPrioritaria, entrega);
+    }
+
+    private void enfileirar(BlockingQueue<Entrega> destino, Entrega entrega) {
+        while (!destino.offer(entrega)) {
+            Entrega antiga = destino.poll();
+            if (antiga != null) {
+                descartadas.incrementAndGet();
+                antiga.falhar(primaria, new MqttException(MqttException.REASON_CODE_MAX_INFLIGHT));
+                logger.warn("Fila do broker [{}] cheia; mensagem mais antiga descartada.", nome);
+            }
+        }
+        LockSupport.unpark(remetente);
+    }
+
+    /**
+     * Mensagem em envio, com o seu contexto de retry e o instante da próxima
+     * tentativa. Usada apenas pela thread de envio.
+     */
+    private static final class Tentativa {
+
+        private final Entrega entrega;
+        private final Retry.AsyncContext<Void> contexto;
+        private int numero;
+        private long proximaNanos;
+
+        private Tentativa(Entrega entrega, Retry.AsyncContext<Void> contexto) {
+            this.entrega = entrega;
+            this.contexto = contexto;
+        }
+    }
+
+    private Tentativa proxima(BlockingQueue<Entrega> origem) {
+        Entrega entrega = origem.poll();
+        return entrega == null ? null : new Tentativa(entrega, retry.asyncContext());
+    }
+
+    /**
+     * Laço da thread de envio. A mensagem prioritária pendente tem a vez sobre
+     * a leitura em andamento, inclusive durante a espera entre as tentativas
+     * da leitura.
+     */
+    private void enviarPendentes() {
+        if (conexao.aguardarPrimeiraTentativa(ESPERA_PRIMEIRA_CONEXAO_MS)) {
+            saude = SaudeConexao.SAUDAVEL;
+        }
+        Tentativa prioritaria = null;
+        Tentativa normal = null;
+        while (ativa && !Thread.currentThread().isInterrupted()) {
+            if (prioritaria == null) {
+                prioritaria = proxima(filaPrioritaria);
+            }
+            if (normal == null && prioritaria == null) {
+                normal = proxima(fila);
+            }
+            Tentativa atual = prioritaria != null ? prioritaria : normal;
+            if (atual == null) {
+                LockSupport.parkNanos(this, ESPERA_FILA_NANOS);
+                continue;
+            }
+            if (!conexao.isConectado()) {
+                LockSupport.parkNanos(this, ESPERA_CONEXAO_NANOS);
+                continue;
+            }
+            long espera = atual.proximaNanos - System.nanoTime();
+            if (atual.numero > 0 && espera > 0) {
+                LockSupport.parkNanos(this, espera);
+                continue;
+            }
+            if (tentar(atual)) {
+                if (atual == prioritaria) {
+                    prioritaria = null;
+                } else {
+                    normal = null;
+                }
+            }
+        }
+        MqttException encerrada = new MqttException(MqttException.REASON_CODE_CLIENT_CLOSED);
+        if (prioritaria != null) {
+            prioritaria.entrega.falhar(primaria, encerrada);
+        }
+        if (normal != null) {
+            normal.entrega.falhar(primaria, encerrada);
+        }
+        Entrega pendente;
+        while ((pendente = filaPrioritaria.poll()) != null || (pendente = fila.poll()) != null) {
+            pendente.falhar(primaria, encerrada);
+        }
+    }
+
+    /**
+     * Faz uma tentativa de publicação. Em caso de falha, agenda a próxima
+     * conforme a política de retry, sem aguardar.
+     *
+     * @param atual Mensagem em envio.
+     * @return {@code true} caso a mensagem tenha sido concluída, com sucesso ou
+     *         com as tentativas esgotadas.
+     */
+    private boolean tentar(Tentativa atual) {
+        Entrega entrega = atual.entrega;
+        try {
+            doEnviar(entrega, ++atual.numero);
+            atual.contexto.onComplete();
+            publicadas.incrementAndGet();
+            entrega.confirmar(primaria);
+            return true;
+        } catch (MqttException e) {
+            registrarFalha(e);
+            long esperaMs = atual.contexto.onError(e);
+            if (esperaMs < 0) {
+                falhas.incrementAndGet();
+                logger.error("Erro ao publicar no broker [{}]: {}", nome, e.getMessage());
+                entrega.falhar(primaria, e);
+                return true;
+            }
+            atual.proximaNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMs);
+            return false;
+        }
+    }
+
+    private void doEnviar(Entrega entrega, int tentativa) throws MqttException {
+        PublicacaoEvento evento = new PublicacaoEvento();
+        evento.begin();
+        boolean sucesso = false;
+        try {
+            if (!conexao.isConectado()) {
+                logger.debug("Broker [{}] em {}; publicação adiada.", nome, conexao.getEstado());
+                throw new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED);
+            }
+            cliente.publicar(entrega.getTopico(), entrega.getConteudo(), entrega.getQos(),
+                    entrega.getInstanteLeitura());
+            sucesso = true;
+        } catch (MqttException e) {
+            if (conexao.isConectado()) {
+                conexao.sinalizarFalha();
+            }
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.broker = nome;
+                evento.topico = entrega.getTopico();
+                evento.qos = entrega.getQos();
+                evento.tentativa = tentativa;
+                evento.sucesso = sucesso;
+                evento.commit();
+            }
+        }
+        falhasConsecutivas = 0;
+        saude = SaudeConexao.SAUDAVEL;
+        logger.debug("Publicado no broker [{}], tópico [{}].", nome, entrega.getTopico());
+    }
+
+    private void registrarFalha(MqttException e) {
+        int consecutivas = ++falhasConsecutivas;
+        saude = consecutivas >= LIMITE_FALHAS_INDISPONIVEL ? SaudeConexao.INDISPONIVEL : SaudeConexao.DEGRADADA;
+        logger.debug("Falha no broker [{}] ({} consecutivas): {}", nome, consecutivas, e.getMessage());
+    }
+
+    /**
+     * Encerra a thread de envio e desconecta do broker. Mensagens ainda na fila
+     * são registradas como falha.
+     */
+    @Override
+    public void close() {
+        ativa = false;
+        remetente.interrupt();
+        try {
+            remetente.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        conexao.close();
+        logger.info("Conexão com o broker [{}] encerrada.", nome);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public boolean isPrimaria() {
+        return primaria;
+    }
+
+    /**
+     * Retorna o gerenciador da conexão, para consulta do estado, das quedas e
+     * da latência de reconexão.
+     *
+     * @return Gerenciador da conexão.
+     */
+    public GerenciadorConexao getGerenciador() {
+        return conexao;
+    }
+
+    /**
+     * Retorna a saúde da conexão; sem conexão com o broker, ela é sempre
+     * {@link SaudeConexao#INDISPONIVEL}.
+     *
+     * @return Estado de saúde.
+     */
+    public SaudeConexao getSaude() {
+        return conexao.isConectado() ? saude : SaudeConexao.INDISPONIVEL;
+    }
+
+    public int getTamanhoFila() {
+        return fila.size() + filaPrioritaria.size();
+    }
+
+    public long getPublicadas() {
+        return publicadas.get();
+    }
+
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+}
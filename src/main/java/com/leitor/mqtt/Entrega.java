@@ -0,0 +1,82 @@
+package com.leitor.mqtt;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mensagem enviada a um conjunto de conexões, concluída quando o quórum
+ * configurado confirma o recebimento.
+ */
+final class Entrega {
+
+    // Tópico e conteúdo da mensagem; cada conexão monta a sua própria MqttMessage
+    private final String topico;
+    private final byte[] conteudo;
+    private final int qos;
+    private final long instanteLeitura;
+
+    // Regra de conclusão e contadores de confirmações e falhas
+    private final Quorum quorum;
+    private final int total;
+    private final int necessarias;
+    private final AtomicInteger confirmacoes = new AtomicInteger();
+    private final AtomicInteger falhas = new AtomicInteger();
+
+    private final CompletableFuture<Void> futuro = new CompletableFuture<>();
+
+    Entrega(String topico, byte[] conteudo, int qos, long instanteLeitura, Quorum quorum, int total) {
+        this.topico = topico;
+        this.conteudo = conteudo;
+        this.qos = qos;
+        this.instanteLeitura = instanteLeitura;
+        this.quorum = quorum;
+        this.total = total;
+        this.necessarias = quorum.confirmacoesNecessarias(total);
+    }
+
+    String getTopico() {
+        return topico;
+    }
+
+    byte[] getConteudo() {
+        return conteudo;
+    }
+
+    int getQos() {
+        return qos;
+    }
+
+    long getInstanteLeitura() {
+        return instanteLeitura;
+    }
+
+    CompletableFuture<Void> getFuturo() {
+        return futuro;
+    }
+
+    /**
+     * Registra a confirmação de uma conexão.
+     *
+     * @param primaria Indica se a confirmação veio da conexão primária.
+     */
+    void confirmar(boolean primaria) {
+        int quantidade = confirmacoes.incrementAndGet();
+        if (quorum == Quorum.PRIMARIO ? primaria : quantidade >= necessarias) {
+            futuro.complete(null);
+        }
+    }
+
+    /**
+     * Registra a falha definitiva de uma conexão. A entrega só falha quando o
+     * quórum não puder mais ser atingido.
+     *
+     * @param primaria Indica se a falha ocorreu na conexão primária.
+     * @param causa Erro que impediu a publicação.
+     */
+    void falhar(boolean primaria, Throwable causa) {
+        int quantidade = falhas.incrementAndGet();
+        if (quorum == Quorum.PRIMARIO ? primaria : quantidade > total - necessarias) {
+            futuro.completeExceptionally(causa);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.leitor.mqtt;
+
+/**
+ * Estado da conexão com um broker MQTT, mantido pelo {@link GerenciadorConexao}.
+ */
+public enum EstadoConexao {
+
+    /** Tentativa de conexão em andamento. */
+    CONECTANDO,
+
+    /** Conectado; as publicações podem ser enviadas. */
+    CONECTADO,
+
+    /** Aguardando a espera exponencial antes da próxima tentativa. */
+    AGUARDANDO,
+
+    /** Conexão encerrada; não haverá novas tentativas. */
+    ENCERRADO
+}
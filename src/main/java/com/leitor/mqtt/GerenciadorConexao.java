@@ -0,0 +1,310 @@
+package com.leitor.mqtt;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.leitor.Configuracao;
+import com.leitor.jfr.ReconexaoEvento;
+
+/**
+ * Único responsável por conectar e reconectar um cliente MQTT. Uma thread
+ * própria percorre a máquina de estados {@link EstadoConexao}: conecta,
+ * verifica periodicamente a conexão e, ao perdê-la, tenta novamente com
+ * espera exponencial e variação aleatória, para que vários leitores não
+ * reconectem ao mesmo tempo após o reinício do broker. A espera sorteada vale
+ * também antes da primeira tentativa após a queda, pois todos os leitores
+ * percebem a queda no mesmo intervalo de verificação.
+ * <p>
+ * Os publicadores apenas leem o estado, sem bloqueio, e nunca conectam por
+ * conta própria. Ao falhar uma publicação, eles chamam {@link #sinalizarFalha()}
+ * para antecipar a próxima verificação.
+ */
+public class GerenciadorConexao implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GerenciadorConexao.class);
+
+    // Valores padrão da espera entre tentativas e do intervalo de verificação
+    static final long ESPERA_INICIAL_PADRAO_MS = 1000;
+    static final long ESPERA_MAXIMA_PADRAO_MS = 60000;
+    static final long VERIFICACAO_PADRAO_MS = 1000;
+
+    // Identificação do broker e cliente gerenciado
+    private final String nome;
+    private final ClienteMqtt cliente;
+
+    // Parâmetros de espera e verificação, em nanossegundos
+    private final long esperaInicialNanos;
+    private final long esperaMaximaNanos;
+    private final long intervaloVerificacaoNanos;
+
+    // Estado lido pelos publicadores e alterado apenas pela thread do gerenciador
+    private volatile EstadoConexao estado = EstadoConexao.CONECTANDO;
+
+    // Liberado ao fim da primeira tentativa de conexão, com ou sem sucesso
+    private final CountDownLatch primeiraTentativa = new CountDownLatch(1);
+
+    private final Thread thread;
+
+    // Métricas: quedas da conexão, reconexões e latência de reconexão
+    private volatile long quedas;
+    private volatile long reconexoes;
+    private volatile long ultimaLatenciaReconexaoMs;
+    private volatile long maiorLatenciaReconexaoMs;
+    private volatile long latenciaTotalReconexaoMs;
+
+    /**
+     * Cria o gerenciador com os valores padrão de espera e verificação.
+     *
+     * @param nome Identificação do broker, normalmente a sua URI.
+     * @param cliente Cliente MQTT gerenciado.
+     */
+    public GerenciadorConexao(String nome, ClienteMqtt cliente) {
+        this(nome, cliente, ESPERA_INICIAL_PADRAO_MS, ESPERA_MAXIMA_PADRAO_MS, VERIFICACAO_PADRAO_MS);
+    }
+
+    /**
+     * Cria o gerenciador. A thread só é iniciada por {@link #iniciar()}.
+     *
+     * @param nome Identificação do broker, normalmente a sua URI.
+     * @param cliente Cliente MQTT gerenciado.
+     * @param esperaInicialMs Espera antes da primeira nova tentativa de conexão.
+     * @param esperaMaximaMs Limite da espera exponencial entre tentativas.
+     * @param intervaloVerificacaoMs Intervalo entre as verificações da conexão.
+     */
+    public GerenciadorConexao(String nome, ClienteMqtt cliente, long esperaInicialMs, long esperaMaximaMs,
+                              long intervaloVerificacaoMs) {
+        this.nome = nome;
+        this.cliente = cliente;
+        this.esperaInicialNanos = TimeUnit.MILLISECONDS.toNanos(esperaInicialMs);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(esperaMaximaMs, esperaInicialMs));
+        this.intervaloVerificacaoNanos = TimeUnit.MILLISECONDS.toNanos(intervaloVerificacaoMs);
+        this.thread = new Thread(this::executar, "mqtt-conexao-" + nome);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Cria o gerenciador a partir das chaves {@code mqtt.reconexao.*} da configuração.
+     *
+     * @param nome Identificação do broker.
+     * @param cliente Cliente MQTT gerenciado.
+     * @param configuracao Configuração do leitor.
+     * @return Gerenciador ainda não iniciado.
+     */
+    public static GerenciadorConexao criar(String nome, ClienteMqtt cliente, Configuracao configuracao) {
+        return new GerenciadorConexao(nome, cliente,
+                configuracao.getLongo("mqtt.reconexao.espera.ms", ESPERA_INICIAL_PADRAO_MS),
+                configuracao.getLongo("mqtt.reconexao.espera.max.ms", ESPERA_MAXIMA_PADRAO_MS),
+                configuracao.getLongo("mqtt.reconexao.verificacao.ms", VERIFICACAO_PADRAO_MS));
+    }
+
+    /**
+     * Inicia a thread do gerenciador, que faz a primeira tentativa de conexão.
+     */
+    public void iniciar() {
+        thread.start();
+    }
+
+    /**
+     * Aguarda o fim da primeira tentativa de conexão.
+     *
+     * @param limiteMs Tempo máximo de espera.
+     * @return {@code true} caso a conexão tenha sido estabelecida.
+     */
+    public boolean aguardarPrimeiraTentativa(long limiteMs) {
+        try {
+            primeiraTentativa.await(limiteMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return isConectado();
+    }
+
+    /**
+     * Informa que uma publicação falhou, antecipando a verificação da conexão.
+     * Não bloqueia e não conecta.
+     */
+    public void sinalizarFalha() {
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Laço da thread do gerenciador.
+     */
+    private void executar() {
+        long esperaNanos = esperaInicialNanos;
+        long inicioQuedaNanos = 0;
+        int tentativas = 0;
+        ReconexaoEvento evento = null;
+        while (estado != EstadoConexao.ENCERRADO) {
+            if (estado == EstadoConexao.CONECTADO) {
+                LockSupport.parkNanos(this, intervaloVerificacaoNanos);
+                if (estado == EstadoConexao.CONECTADO && !cliente.isConectado()) {
+                    quedas++;
+                    inicioQuedaNanos = System.nanoTime();
+                    evento = new ReconexaoEvento();
+                    evento.begin();
+                    logger.warn("Conexão com o broker [{}] perdida ({} queda(s)).", nome, quedas);
+                    aguardar(esperaInicialNanos);
+                    esperaNanos = Math.min(esperaInicialNanos * 2, esperaMaximaNanos);
+                }
+                continue;
+            }
+            tentativas++;
+            boolean conectado = conectar();
+            primeiraTentativa.countDown();
+            if (conectado) {
+                if (inicioQuedaNanos != 0) {
+                    registrarReconexao(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioQuedaNanos),
+                            tentativas);
+                    registrarEvento(evento, tentativas);
+                    evento = null;
+                } else {
+                    logger.info("Conectado ao broker MQTT [{}]", nome);
+                }
+                esperaNanos = esperaInicialNanos;
+                inicioQuedaNanos = 0;
+                tentativas = 0;
+            } else {
+                aguardar(esperaNanos);
+                esperaNanos = Math.min(esperaNanos * 2, esperaMaximaNanos);
+            }
+        }
+    }
+
+    private boolean conectar() {
+        transitar(EstadoConexao.CONECTANDO);
+        try {
+            cliente.conectar();
+            transitar(EstadoConexao.CONECTADO);
+            return true;
+        } catch (MqttException e) {
+            logger.error("Erro ao conectar no broker [{}]: {}", nome, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Aguarda entre metade e a totalidade da espera atual, sorteando o valor
+     * para espalhar as reconexões de vários leitores no tempo.
+     */
+    private void aguardar(long esperaNanos) {
+        if (!transitar(EstadoConexao.AGUARDANDO)) {
+            return;
+        }
+        long sorteada = esperaNanos / 2 + ThreadLocalRandom.current().nextLong(esperaNanos / 2 + 1);
+        long limite = System.nanoTime() + sorteada;
+        long restante;
+        while (estado == EstadoConexao.AGUARDANDO && (restante = limite - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, restante);
+        }
+    }
+
+    /**
+     * Altera o estado, exceto após o encerramento.
+     *
+     * @return {@code false} caso o gerenciador já esteja encerrado.
+     */
+    private synchronized boolean transitar(EstadoConexao novo) {
+        if (estado == EstadoConexao.ENCERRADO) {
+            return false;
+        }
+        estado = novo;
+        return true;
+    }
+
+    private void registrarEvento(ReconexaoEvento evento, int tentativas) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.broker = nome;
+            evento.tentativas = tentativas;
+            evento.quedas = quedas;
+            evento.commit();
+        }
+    }
+
+    private void registrarReconexao(long latenciaMs, int tentativas) {
+        reconexoes++;
+        ultimaLatenciaReconexaoMs = latenciaMs;
+        maiorLatenciaReconexaoMs = Math.max(maiorLatenciaReconexaoMs, latenciaMs);
+        latenciaTotalReconexaoMs += latenciaMs;
+        logger.info("Reconectado ao broker [{}] em {} ms após {} tentativa(s).", nome, latenciaMs, tentativas);
+    }
+
+    /**
+     * Encerra a thread do gerenciador e fecha o cliente MQTT.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            estado = EstadoConexao.ENCERRADO;
+        }
+        primeiraTentativa.countDown();
+        LockSupport.unpark(thread);
+        if (thread.isAlive()) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            cliente.close();
+        } catch (MqttException e) {
+            logger.error("Erro ao encerrar conexão com o broker [{}]: {}", nome, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retorna o estado atual, sem bloqueio.
+     *
+     * @return Estado da conexão.
+     */
+    public EstadoConexao getEstado() {
+        return estado;
+    }
+
+    /**
+     * Indica, sem bloqueio, se a conexão está estabelecida.
+     *
+     * @return {@code true} no estado {@link EstadoConexao#CONECTADO}.
+     */
+    public boolean isConectado() {
+        return estado == EstadoConexao.CONECTADO;
+    }
+
+    public ClienteMqtt getCliente() {
+        return cliente;
+    }
+
+    public long getQuedas() {
+        return quedas;
+    }
+
+    public long getReconexoes() {
+        return reconexoes;
+    }
+
+    public long getUltimaLatenciaReconexaoMs() {
+        return ultimaLatenciaReconexaoMs;
+    }
+
+    public long getMaiorLatenciaReconexaoMs() {
+        return maiorLatenciaReconexaoMs;
+    }
+
+    /**
+     * Retorna a latência média de reconexão, desde a queda até a nova conexão.
+     *
+     * @return Média em milissegundos, ou zero sem reconexões.
+     */
+    public long getLatenciaMediaReconexaoMs() {
+        long total = reconexoes;
+        return total == 0 ? 0 : latenciaTotalReconexaoMs / total;
+    }
+}
@@ -0,0 +1,59 @@
+package com.leitor.mqtt;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Abstração para a publicação das leituras em um ou mais brokers MQTT.
+ */
+public interface Publicador extends AutoCloseable {
+
+    /**
+     * Publica uma mensagem no tópico informado.
+     *
+     * @param topico Tópico MQTT onde a mensagem será publicada.
+     * @param mensagem Conteúdo da mensagem a ser publicada.
+     * @param instanteLeitura Instante da leitura no sensor, em milissegundos desde a época.
+     * @return Futuro concluído quando a publicação for confirmada, ou concluído
+     *         com erro caso não seja possível publicá-la.
+     */
+    CompletableFuture<Void> publicar(String topico, String mensagem, long instanteLeitura);
+
+    /**
+     * Publica uma mensagem no tópico informado, usando o instante atual como
+     * instante da leitura.
+     *
+     * @param topico Tópico MQTT onde a mensagem será publicada.
+     * @param mensagem Conteúdo da mensagem a ser publicada.
+     * @return Futuro concluído quando a publicação for confirmada.
+     */
+    default CompletableFuture<Void> publicar(String topico, String mensagem) {
+        return publicar(topico, mensagem, System.currentTimeMillis());
+    }
+
+    /**
+     * Publica uma mensagem com prioridade sobre as leituras, como os alarmes.
+     * A mensagem é enviada antes das leituras que aguardam na fila, mesmo com
+     * a fila cheia. Por padrão, publica como uma mensagem comum.
+     *
+     * @param topico Tópico MQTT onde a mensagem será publicada.
+     * @param mensagem Conteúdo da mensagem a ser publicada.
+     * @param instante Instante do evento, em milissegundos desde a época.
+     * @return Futuro concluído quando a publicação for confirmada.
+     */
+    default CompletableFuture<Void> publicarPrioritario(String topico, String mensagem, long instante) {
+        return publicar(topico, mensagem, instante);
+    }
+
+    /**
+     * Indica se ao menos uma conexão com broker está ativa.
+     *
+     * @return {@code true} caso seja possível publicar no momento.
+     */
+    boolean isConectado();
+
+    /**
+     * Encerra as conexões com os brokers.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,122 @@
+package com.leitor.mqtt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+
+import com.leitor.Configuracao;
+
+import io.github.resilience4j.retry.RetryConfig;
+
+/**
+ * Publicador que distribui as mensagens entre K conexões com o mesmo broker.
+ * Cada tópico é sempre enviado pelo mesmo fragmento, o que mantém a ordem
+ * dentro do tópico, enquanto tópicos diferentes são publicados em paralelo.
+ */
+public class PublicadorFragmentado implements Publicador {
+
+    // Conexões com o broker, uma por fragmento
+    private final List<ConexaoBroker> fragmentos;
+
+    // Qualidade de serviço das mensagens publicadas
+    private final int qos;
+
+    /**
+     * Cria o publicador a partir de conexões já iniciadas.
+     *
+     * @param fragmentos Conexões com o broker, uma por fragmento.
+     * @param qos Qualidade de serviço das mensagens.
+     */
+    public PublicadorFragmentado(List<ConexaoBroker> fragmentos, int qos) {
+        if (fragmentos.isEmpty()) {
+            throw new IllegalArgumentException("Ao menos um fragmento deve ser informado.");
+        }
+        this.fragmentos = Collections.unmodifiableList(new ArrayList<>(fragmentos));
+        this.qos = qos;
+    }
+
+    /**
+     * Cria o publicador com {@code mqtt.fragmentos} conexões com o primeiro broker
+     * de {@code mqtt.brokers}. Cada conexão usa o identificador
+     * {@code clientId-<fragmento>}.
+     *
+     * @param configuracao Configuração do leitor.
+     * @param clientId Identificador base dos clientes MQTT.
+     * @return Publicador com uma conexão por fragmento.
+     * @throws MqttException Caso algum cliente MQTT não possa ser criado.
+     * @throws IllegalArgumentException Caso {@code mqtt.brokers} não contenha nenhum broker.
+     */
+    public static PublicadorFragmentado criar(Configuracao configuracao, String clientId) throws MqttException {
+        String broker = configuracao.getListaObrigatoria("mqtt.brokers", "tcp://localhost:1883").get(0);
+        int quantidade = configuracao.getInteiro("mqtt.fragmentos", 1);
+        int qos = configuracao.getInteiro("mqtt.qos", 2);
+        int capacidadeFila = configuracao.getInteiro("mqtt.fila.capacidade", 1000);
+        RetryConfig retryConfig = ConexaoBroker.criarRetryConfig(configuracao);
+        TransporteMqtt transporte = TransporteMqtt.de(configuracao);
+
+        List<ConexaoBroker> fragmentos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            ClienteMqtt cliente = transporte.criarCliente(broker, clientId + "-" + i, configuracao);
+            String nome = broker + "#" + i;
+            fragmentos.add(new ConexaoBroker(nome, true, GerenciadorConexao.criar(nome, cliente, configuracao),
+                    retryConfig, capacidadeFila));
+        }
+        return new PublicadorFragmentado(fragmentos, qos);
+    }
+
+    /**
+     * Calcula o fragmento responsável por um tópico.
+     *
+     * @param topico Tópico MQTT.
+     * @return Índice do fragmento, sempre o mesmo para o mesmo tópico.
+     */
+    public int indiceFragmento(String topico) {
+        return Math.floorMod(topico.hashCode(), fragmentos.size());
+    }
+
+    @Override
+    public CompletableFuture<Void> publicar(String topico, String mensagem, long instanteLeitura) {
+        Entrega entrega = new Entrega(topico, mensagem.getBytes(StandardCharsets.UTF_8), qos, instanteLeitura,
+                Quorum.QUALQUER, 1);
+        fragmentos.get(indiceFragmento(topico)).enfileirar(entrega);
+        return entrega.getFuturo();
+    }
+
+    @Override
+    public CompletableFuture<Void> publicarPrioritario(String topico, String mensagem, long instante) {
+        Entrega entrega = new Entrega(topico, mensagem.getBytes(StandardCharsets.UTF_8), qos, instante,
+                Quorum.QUALQUER, 1);
+        fragmentos.get(indiceFragmento(topico)).enfileirarPrioritaria(entrega);
+        return entrega.getFuturo();
+    }
+
+    @Override
+    public boolean isConectado() {
+        for (ConexaoBroker fragmento : fragmentos) {
+            if (fragmento.getSaude() != SaudeConexao.INDISPONIVEL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        for (ConexaoBroker fragmento : fragmentos) {
+            fragmento.close();
+        }
+    }
+
+    /**
+     * Retorna os fragmentos, para consulta de saúde e profundidade das filas.
+     *
+     * @return Conexões na ordem dos índices de fragmento.
+     */
+    public List<ConexaoBroker> getFragmentos() {
+        return fragmentos;
+    }
+}
@@ -0,0 +1,124 @@
+package com.leitor.mqtt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+
+import com.leitor.Configuracao;
+
+import io.github.resilience4j.retry.RetryConfig;
+
+/**
+ * Publicador que envia cada mensagem em paralelo para vários brokers (por
+ * exemplo, um local e um em nuvem). Cada broker possui fila, retry e saúde
+ * independentes, e a publicação é concluída quando o {@link Quorum}
+ * configurado confirma o recebimento.
+ */
+public class PublicadorMultiBroker implements Publicador {
+
+    // Conexões com os brokers; a primeira é a primária
+    private final List<ConexaoBroker> conexoes;
+
+    // Regra de conclusão das publicações
+    private final Quorum quorum;
+
+    // Qualidade de serviço das mensagens publicadas
+    private final int qos;
+
+    /**
+     * Cria o publicador a partir de conexões já iniciadas.
+     *
+     * @param conexoes Conexões com os brokers, com a primária na primeira posição.
+     * @param quorum Regra de conclusão das publicações.
+     * @param qos Qualidade de serviço das mensagens.
+     */
+    public PublicadorMultiBroker(List<ConexaoBroker> conexoes, Quorum quorum, int qos) {
+        if (conexoes.isEmpty()) {
+            throw new IllegalArgumentException("Ao menos um broker deve ser informado.");
+        }
+        this.conexoes = Collections.unmodifiableList(new ArrayList<>(conexoes));
+        this.quorum = quorum;
+        this.qos = qos;
+    }
+
+    /**
+     * Cria o publicador com os brokers listados em {@code mqtt.brokers}.
+     *
+     * @param configuracao Configuração do leitor.
+     * @param clientId Identificador do cliente MQTT em cada broker.
+     * @return Publicador com uma conexão por broker.
+     * @throws MqttException Caso algum cliente MQTT não possa ser criado.
+     * @throws IllegalArgumentException Caso {@code mqtt.brokers} não contenha nenhum broker.
+     */
+    public static PublicadorMultiBroker criar(Configuracao configuracao, String clientId) throws MqttException {
+        List<String> brokers = configuracao.getListaObrigatoria("mqtt.brokers", "tcp://localhost:1883");
+        Quorum quorum = Quorum.valueOf(configuracao.getTexto("mqtt.quorum", "QUALQUER").toUpperCase());
+        int qos = configuracao.getInteiro("mqtt.qos", 2);
+        int capacidadeFila = configuracao.getInteiro("mqtt.fila.capacidade", 1000);
+        RetryConfig retryConfig = ConexaoBroker.criarRetryConfig(configuracao);
+        TransporteMqtt transporte = TransporteMqtt.de(configuracao);
+
+        List<ConexaoBroker> conexoes = new ArrayList<>();
+        for (int i = 0; i < brokers.size(); i++) {
+            String broker = brokers.get(i);
+            ClienteMqtt cliente = transporte.criarCliente(broker, clientId, configuracao);
+            conexoes.add(new ConexaoBroker(broker, i == 0, GerenciadorConexao.criar(broker, cliente, configuracao),
+                    retryConfig, capacidadeFila));
+        }
+        return new PublicadorMultiBroker(conexoes, quorum, qos);
+    }
+
+    @Override
+    public CompletableFuture<Void> publicar(String topico, String mensagem, long instanteLeitura) {
+        Entrega entrega = new Entrega(topico, mensagem.getBytes(StandardCharsets.UTF_8), qos, instanteLeitura,
+                quorum, conexoes.size());
+        for (ConexaoBroker conexao : conexoes) {
+            conexao.enfileirar(entrega);
+        }
+        return entrega.getFuturo();
+    }
+
+    @Override
+    public CompletableFuture<Void> publicarPrioritario(String topico, String mensagem, long instante) {
+        Entrega entrega = new Entrega(topico, mensagem.getBytes(StandardCharsets.UTF_8), qos, instante,
+                quorum, conexoes.size());
+        for (ConexaoBroker conexao : conexoes) {
+            conexao.enfileirarPrioritaria(entrega);
+        }
+        return entrega.getFuturo();
+    }
+
+    @Override
+    public boolean isConectado() {
+        for (ConexaoBroker conexao : conexoes) {
+            if (conexao.getSaude() != SaudeConexao.INDISPONIVEL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        for (ConexaoBroker conexao : conexoes) {
+            conexao.close();
+        }
+    }
+
+    /**
+     * Retorna as conexões com os brokers, para consulta de saúde e filas.
+     *
+     * @return Conexões na ordem configurada.
+     */
+    public List<ConexaoBroker> getConexoes() {
+        return conexoes;
+    }
+
+    public Quorum getQuorum() {
+        return quorum;
+    }
+}
@@ -0,0 +1,27 @@
+package com.leitor.mqtt;
+
+/**
+ * Quantidade de confirmações de brokers necessária para considerar uma
+ * publicação concluída.
+ */
+public enum Quorum {
+
+    /** Basta a confirmação de qualquer um dos brokers. */
+    QUALQUER,
+
+    /** Todos os brokers precisam confirmar. */
+    TODOS,
+
+    /** Apenas a confirmação do broker primário é considerada. */
+    PRIMARIO;
+
+    /**
+     * Calcula quantas confirmações são necessárias para o total de brokers.
+     *
+     * @param total Quantidade de brokers que receberão a mensagem.
+     * @return Número de confirmações exigidas.
+     */
+    int confirmacoesNecessarias(int total) {
+        return this == TODOS ? total : 1;
+    }
+}
@@ -0,0 +1,16 @@
+package com.leitor.mqtt;
+
+/**
+ * Estado de saúde de uma conexão com broker MQTT.
+ */
+public enum SaudeConexao {
+
+    /** Última publicação confirmada com sucesso. */
+    SAUDAVEL,
+
+    /** Falhas recentes, mas ainda abaixo do limite para indisponibilidade. */
+    DEGRADADA,
+
+    /** Broker inacessível ou falhando de forma consecutiva. */
+    INDISPONIVEL
+}
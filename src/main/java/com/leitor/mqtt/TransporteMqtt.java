@@ -0,0 +1,62 @@
+package com.leitor.mqtt;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
+
+import com.leitor.Configuracao;
+
+/**
+ * Versão do protocolo MQTT usada nas conexões, selecionada por
+ * {@code mqtt.transporte}.
+ */
+public enum TransporteMqtt {
+
+    /** MQTT 3.1.1, com {@code org.eclipse.paho.client.mqttv3}. */
+    V3 {
+        @Override
+        public ClienteMqtt criarCliente(String broker, String clientId, Configuracao configuracao)
+                throws MqttException {
+            return new ClienteMqtt3(
+                    new org.eclipse.paho.client.mqttv3.MqttClient(broker, clientId,
+                            new org.eclipse.paho.client.mqttv3.persist.MemoryPersistence()),
+                    ConexaoBroker.criarOpcoes());
+        }
+    },
+
+    /** MQTT 5, com topic aliases, expiração de sessão e propriedades de usuário. */
+    V5 {
+        @Override
+        public ClienteMqtt criarCliente(String broker, String clientId, Configuracao configuracao)
+                throws MqttException {
+            try {
+                return new ClienteMqtt5(
+                        new org.eclipse.paho.mqttv5.client.MqttClient(broker, clientId,
+                                new org.eclipse.paho.mqttv5.client.persist.MemoryPersistence()),
+                        ClienteMqtt5.criarOpcoes(configuracao.getLongo("mqtt5.sessao.expiracao.s", 3600)));
+            } catch (org.eclipse.paho.mqttv5.common.MqttException e) {
+                throw new MqttException(e.getReasonCode(), e);
+            }
+        }
+    };
+
+    /**
+     * Cria um cliente para o broker informado.
+     *
+     * @param broker URI do broker.
+     * @param clientId Identificador do cliente.
+     * @param configuracao Configuração do leitor.
+     * @return Cliente MQTT ainda não conectado.
+     * @throws MqttException Caso o cliente não possa ser criado.
+     */
+    public abstract ClienteMqtt criarCliente(String broker, String clientId, Configuracao configuracao)
+            throws MqttException;
+
+    /**
+     * Lê o transporte configurado em {@code mqtt.transporte} ({@code v3} ou {@code v5}).
+     *
+     * @param configuracao Configuração do leitor.
+     * @return Transporte configurado; MQTT 3.1.1 por padrão.
+     */
+    public static TransporteMqtt de(Configuracao configuracao) {
+        return valueOf(configuracao.getTexto("mqtt.transporte", "v3").toUpperCase());
+    }
+}
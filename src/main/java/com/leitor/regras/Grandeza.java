@@ -0,0 +1,27 @@
+package com.leitor.regras;
+
+/**
+ * Grandeza medida pelo sensor à qual uma regra de alarme se aplica.
+ */
+public enum Grandeza {
+
+    TEMPERATURA,
+
+    UMIDADE;
+
+    /**
+     * Converte o nome usado nas regras, sem diferenciar maiúsculas.
+     *
+     * @param nome Nome da grandeza, como {@code temperatura}.
+     * @return A grandeza correspondente.
+     * @throws IllegalArgumentException Caso o nome não corresponda a nenhuma grandeza.
+     */
+    public static Grandeza de(String nome) {
+        for (Grandeza grandeza : values()) {
+            if (grandeza.name().equalsIgnoreCase(nome)) {
+                return grandeza;
+            }
+        }
+        throw new IllegalArgumentException("Grandeza desconhecida: " + nome);
+    }
+}
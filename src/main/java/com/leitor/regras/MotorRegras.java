@@ -0,0 +1,192 @@
+package com.leitor.regras;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.leitor.Configuracao;
+
+/**
+ * Avalia as regras de alarme sobre as leituras, no próprio leitor. As regras
+ * são compiladas uma única vez a partir da configuração, em objetos que
+ * recebem o valor como {@code float}, sem interpretação nem boxing por leitura.
+ * <p>
+ * Sintaxe das expressões:
+ * <pre>
+ *   temperatura &gt; 40 por 30s     limite ultrapassado durante o tempo informado
+ *   temperatura &lt; 5 por 2min     valor abaixo do limite durante o tempo informado
+ *   umidade sobe 5 por min        alta maior que a variação dentro da janela
+ *   umidade desce 5 por min       queda maior que a variação dentro da janela
+ * </pre>
+ */
+public class MotorRegras {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorRegras.class);
+
+    /**
+     * Destino dos alarmes disparados.
+     */
+    public interface Disparo {
+
+        /**
+         * @param regra Regra que disparou.
+         * @param valor Valor que disparou o alarme.
+         * @param instante Instante da leitura, em milissegundos desde a época.
+         */
+        void aoDisparar(Regra regra, float valor, long instante);
+    }
+
+    // Regras indexadas pelo ordinal da grandeza
+    private final Regra[][] regrasPorGrandeza;
+    private final List<Regra> regras;
+
+    private long disparos;
+
+    /**
+     * Cria o motor a partir de regras já compiladas.
+     *
+     * @param regras Regras a avaliar.
+     */
+    public MotorRegras(List<Regra> regras) {
+        this.regras = Collections.unmodifiableList(new ArrayList<>(regras));
+        this.regrasPorGrandeza = new Regra[Grandeza.values().length][];
+        for (Grandeza grandeza : Grandeza.values()) {
+            List<Regra> daGrandeza = new ArrayList<>();
+            for (Regra regra : regras) {
+                if (regra.getGrandeza() == grandeza) {
+                    daGrandeza.add(regra);
+                }
+            }
+            regrasPorGrandeza[grandeza.ordinal()] = daGrandeza.toArray(new Regra[0]);
+        }
+    }
+
+    /**
+     * Compila as regras da chave {@code regras}, separadas por vírgula.
+     *
+     * @param configuracao Configuração do leitor.
+     * @return O motor, ou {@code null} caso nenhuma regra esteja configurada.
+     * @throws IllegalArgumentException Caso alguma expressão seja inválida.
+     */
+    public static MotorRegras criar(Configuracao configuracao) {
+        List<String> expressoes = configuracao.getLista("regras", "");
+        if (expressoes.isEmpty()) {
+            return null;
+        }
+        List<Regra> regras = new ArrayList<>();
+        for (String expressao : expressoes) {
+            regras.add(compilar(expressao));
+        }
+        logger.info("Regras de alarme carregadas: {}", regras);
+        return new MotorRegras(regras);
+    }
+
+    /**
+     * Compila uma expressão de regra.
+     *
+     * @param expressao Expressão, como {@code temperatura > 40 por 30s}.
+     * @return A regra compilada, com estado próprio.
+     * @throws IllegalArgumentException Caso a expressão seja inválida.
+     */
+    public static Regra compilar(String expressao) {
+        String texto = expressao.trim();
+        String[] partes = texto.split("\\s+");
+        if (partes.length != 5 || !"por".equalsIgnoreCase(partes[3])) {
+            throw new IllegalArgumentException("Regra inválida: '" + texto
+                    + "'. Use '<grandeza> <operador> <valor> por <duração>'.");
+        }
+        Grandeza grandeza = Grandeza.de(partes[0]);
+        float valor = lerValor(partes[2], texto);
+        long duracaoMs = lerDuracao(partes[4], texto);
+        switch (partes[1].toLowerCase()) {
+            case ">":
+                return new RegraLimiteSustentado(texto, grandeza, true, valor, duracaoMs);
+            case "<":
+                return new RegraLimiteSustentado(texto, grandeza, false, valor, duracaoMs);
+            case "sobe":
+                return new RegraTaxaVariacao(texto, grandeza, true, valor, duracaoMs);
+            case "desce":
+                return new RegraTaxaVariacao(texto, grandeza, false, valor, duracaoMs);
+            default:
+                throw new IllegalArgumentException("Operador inválido na regra '" + texto
+                        + "'. Use '>', '<', 'sobe' ou 'desce'.");
+        }
+    }
+
+    private static float lerValor(String valor, String texto) {
+        try {
+            return Float.parseFloat(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido na regra '" + texto + "': " + valor, e);
+        }
+    }
+
+    /**
+     * Converte durações como {@code 30s}, {@code 2min} ou {@code min} (um minuto).
+     */
+    static long lerDuracao(String duracao, String texto) {
+        String unidade = duracao.toLowerCase();
+        try {
+            if ("min".equals(unidade)) {
+                return 60000;
+            }
+            if (unidade.endsWith("min")) {
+                return Long.parseLong(unidade.substring(0, unidade.length() - 3)) * 60000;
+            }
+            if (unidade.endsWith("ms")) {
+                return Long.parseLong(unidade.substring(0, unidade.length() - 2));
+            }
+            if (unidade.endsWith("s")) {
+                return Long.parseLong(unidade.substring(0, unidade.length() - 1)) * 1000;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Duração inválida na regra '" + texto + "': " + duracao, e);
+        }
+        throw new IllegalArgumentException("Duração inválida na regra '" + texto + "': " + duracao
+                + ". Use 's', 'ms' ou 'min'.");
+    }
+
+    /**
+     * Indica se há regras para a grandeza, para evitar converter leituras sem regras.
+     *
+     * @param grandeza Grandeza da leitura.
+     * @return {@code true} caso ao menos uma regra se aplique.
+     */
+    public boolean possuiRegras(Grandeza grandeza) {
+        return regrasPorGrandeza[grandeza.ordinal()].length > 0;
+    }
+
+    /**
+     * Avalia todas as regras da grandeza sobre uma leitura. Valores não finitos
+     * ({@code NaN} ou infinitos) são ignorados, para não disparar alarmes nem
+     * entrar na janela das regras de variação.
+     *
+     * @param grandeza Grandeza da leitura.
+     * @param valor Valor medido.
+     * @param instante Instante da leitura, em milissegundos desde a época.
+     * @param disparo Destino dos alarmes disparados.
+     */
+    public void avaliar(Grandeza grandeza, float valor, long instante, Disparo disparo) {
+        if (!Float.isFinite(valor)) {
+            return;
+        }
+        Regra[] daGrandeza = regrasPorGrandeza[grandeza.ordinal()];
+        for (int i = 0; i < daGrandeza.length; i++) {
+            if (daGrandeza[i].avaliar(valor, instante)) {
+                disparos++;
+                disparo.aoDisparar(daGrandeza[i], valor, instante);
+            }
+        }
+    }
+
+    public List<Regra> getRegras() {
+        return regras;
+    }
+
+    public long getDisparos() {
+        return disparos;
+    }
+}
@@ -0,0 +1,40 @@
+package com.leitor.regras;
+
+/**
+ * Regra de alarme já compilada. Cada instância guarda o próprio estado de
+ * janela em campos primitivos e é avaliada apenas pela thread de leitura.
+ */
+public abstract class Regra {
+
+    // Expressão de origem, usada na identificação do alarme
+    private final String expressao;
+    private final Grandeza grandeza;
+
+    Regra(String expressao, Grandeza grandeza) {
+        this.expressao = expressao;
+        this.grandeza = grandeza;
+    }
+
+    /**
+     * Avalia uma leitura. O alarme dispara apenas na transição para a condição
+     * de alarme e é rearmado quando a condição deixa de valer.
+     *
+     * @param valor Valor medido.
+     * @param instante Instante da leitura, em milissegundos desde a época.
+     * @return {@code true} caso a leitura dispare o alarme.
+     */
+    public abstract boolean avaliar(float valor, long instante);
+
+    public String getExpressao() {
+        return expressao;
+    }
+
+    public Grandeza getGrandeza() {
+        return grandeza;
+    }
+
+    @Override
+    public String toString() {
+        return expressao;
+    }
+}
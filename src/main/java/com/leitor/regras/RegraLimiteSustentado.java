@@ -0,0 +1,41 @@
+package com.leitor.regras;
+
+/**
+ * Alarme disparado quando o valor permanece acima (ou abaixo) de um limite
+ * durante um tempo mínimo, como {@code temperatura > 40 por 30s}.
+ */
+final class RegraLimiteSustentado extends Regra {
+
+    private final boolean acima;
+    private final float limite;
+    private final long duracaoMs;
+
+    // Instante em que o limite foi ultrapassado, ou -1 dentro do limite
+    private long inicioViolacao = -1;
+    private boolean disparada;
+
+    RegraLimiteSustentado(String expressao, Grandeza grandeza, boolean acima, float limite, long duracaoMs) {
+        super(expressao, grandeza);
+        this.acima = acima;
+        this.limite = limite;
+        this.duracaoMs = duracaoMs;
+    }
+
+    @Override
+    public boolean avaliar(float valor, long instante) {
+        boolean violado = acima ? valor > limite : valor < limite;
+        if (!violado) {
+            inicioViolacao = -1;
+            disparada = false;
+            return false;
+        }
+        if (inicioViolacao < 0) {
+            inicioViolacao = instante;
+        }
+        if (!disparada && instante - inicioViolacao >= duracaoMs) {
+            disparada = true;
+            return true;
+        }
+        return false;
+    }
+}
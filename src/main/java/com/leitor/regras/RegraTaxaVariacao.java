@@ -0,0 +1,73 @@
+package com.leitor.regras;
+
+/**
+ * Alarme disparado quando o valor sobe (ou desce) mais que um limite dentro
+ * de uma janela de tempo, como {@code umidade sobe 5 por min}.
+ * <p>
+ * As amostras da janela ficam em um buffer circular de tipos primitivos,
+ * espaçadas de pelo menos {@code janela / AMOSTRAS}, de modo que a memória é
+ * fixa qualquer que seja a taxa de leitura.
+ */
+final class RegraTaxaVariacao extends Regra {
+
+    // Resolução da janela: quantidade de amostras mantidas
+    static final int AMOSTRAS = 32;
+
+    private final boolean subindo;
+    private final float variacaoMaxima;
+    private final long janelaMs;
+    private final long espacamentoMs;
+
+    // Buffer circular das amostras da janela, da mais antiga (inicio) à mais recente
+    private final float[] valores = new float[AMOSTRAS + 1];
+    private final long[] instantes = new long[AMOSTRAS + 1];
+    private int inicio;
+    private int quantidade;
+
+    private boolean disparada;
+
+    RegraTaxaVariacao(String expressao, Grandeza grandeza, boolean subindo, float variacaoMaxima, long janelaMs) {
+        super(expressao, grandeza);
+        this.subindo = subindo;
+        this.variacaoMaxima = variacaoMaxima;
+        this.janelaMs = janelaMs;
+        this.espacamentoMs = Math.max(1, janelaMs / AMOSTRAS);
+    }
+
+    @Override
+    public boolean avaliar(float valor, long instante) {
+        while (quantidade > 0 && instante - instantes[inicio] > janelaMs) {
+            inicio = (inicio + 1) % valores.length;
+            quantidade--;
+        }
+        boolean disparar = false;
+        if (quantidade > 0) {
+            float variacao = subindo ? valor - valores[inicio] : valores[inicio] - valor;
+            if (variacao <= variacaoMaxima) {
+                disparada = false;
+            } else if (!disparada) {
+                disparada = true;
+                disparar = true;
+            }
+        }
+        armazenar(valor, instante);
+        return disparar;
+    }
+
+    private void armazenar(float valor, long instante) {
+        if (quantidade > 0) {
+            int ultima = (inicio + quantidade - 1) % valores.length;
+            if (instante - instantes[ultima] < espacamentoMs) {
+                return;
+            }
+        }
+        if (quantidade == valores.length) {
+            inicio = (inicio + 1) % valores.length;
+            quantidade--;
+        }
+        int posicao = (inicio + quantidade) % valores.length;
+        valores[posicao] = valor;
+        instantes[posicao] = instante;
+        quantidade++;
+    }
+}
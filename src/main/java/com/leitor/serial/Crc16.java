@@ -0,0 +1,40 @@
+package com.leitor.serial;
+
+/**
+ * CRC-16/CCITT-FALSE (polinômio 0x1021, valor inicial 0xFFFF), usado para
+ * validar os quadros do protocolo binário.
+ */
+final class Crc16 {
+
+    // Tabela pré-calculada para um byte por iteração
+    private static final int[] TABELA = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+            TABELA[i] = crc & 0xFFFF;
+        }
+    }
+
+    private Crc16() {
+    }
+
+    /**
+     * Calcula o CRC de um trecho do buffer.
+     *
+     * @param dados Buffer com os dados.
+     * @param inicio Posição inicial.
+     * @param tamanho Quantidade de bytes.
+     * @return CRC de 16 bits.
+     */
+    static int calcular(byte[] dados, int inicio, int tamanho) {
+        int crc = 0xFFFF;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            crc = ((crc << 8) ^ TABELA[((crc >>> 8) ^ dados[i]) & 0xFF]) & 0xFFFF;
+        }
+        return crc;
+    }
+}
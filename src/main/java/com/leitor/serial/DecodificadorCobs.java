@@ -0,0 +1,162 @@
+package com.leitor.serial;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodificador incremental do protocolo binário do sensor.
+ * <p>
+ * Cada quadro é um registro codificado com COBS e terminado pelo delimitador
+ * {@code 0x00}. Depois de decodificado, o registro tem 15 bytes, todos em
+ * big-endian:
+ * <pre>
+ *   canal (1) | valor float32 (4) | instante int64 em ms desde a época (8) | CRC16 (2)
+ * </pre>
+ * O CRC16/CCITT-FALSE cobre os 13 bytes anteriores. Quadros corrompidos são
+ * descartados. Como o delimitador não aparece dentro de um quadro codificado,
+ * a leitura se ressincroniza no próximo {@code 0x00}.
+ */
+public class DecodificadorCobs {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecodificadorCobs.class);
+
+    /** Canal das leituras de temperatura. */
+    public static final int CANAL_TEMPERATURA = 1;
+
+    /** Canal das leituras de umidade. */
+    public static final int CANAL_UMIDADE = 2;
+
+    // Tamanho do registro decodificado, sem e com o CRC
+    static final int TAMANHO_REGISTRO = 13;
+    static final int TAMANHO_QUADRO = TAMANHO_REGISTRO + 2;
+
+    // Maior quadro codificado aceito; acima disso os bytes são descartados até o delimitador
+    private static final int TAMANHO_MAXIMO = 64;
+
+    /**
+     * Destino das leituras decodificadas. Os valores chegam como tipos
+     * primitivos, sem alocação por leitura.
+     */
+    public interface Receptor {
+
+        /**
+         * @param canal Canal da leitura.
+         * @param valor Valor medido.
+         * @param instante Instante da leitura no sensor, em milissegundos desde a época.
+         */
+        void aoReceber(int canal, float valor, long instante);
+    }
+
+    // Quadro codificado em formação e o mesmo quadro após a decodificação COBS
+    private final byte[] codificado = new byte[TAMANHO_MAXIMO];
+    private final byte[] decodificado = new byte[TAMANHO_MAXIMO];
+    private int tamanho;
+
+    // Falso até o primeiro delimitador: bytes anteriores podem ser o fim de um quadro
+    private boolean sincronizado;
+    private boolean excedido;
+
+    // Contadores
+    private long quadrosValidos;
+    private long quadrosDescartados;
+
+    /**
+     * Consome um bloco de bytes, entregando ao receptor cada quadro válido concluído.
+     *
+     * @param dados Bytes recebidos da porta serial.
+     * @param quantidade Quantidade de bytes válidos em {@code dados}.
+     * @param receptor Destino das leituras decodificadas.
+     */
+    public void decodificar(byte[] dados, int quantidade, Receptor receptor) {
+        for (int i = 0; i < quantidade; i++) {
+            byte b = dados[i];
+            if (b != 0) {
+                if (tamanho < TAMANHO_MAXIMO) {
+                    codificado[tamanho++] = b;
+                } else {
+                    excedido = true;
+                }
+                continue;
+            }
+            if (sincronizado && tamanho > 0) {
+                if (excedido) {
+                    descartar("quadro acima de " + TAMANHO_MAXIMO + " bytes");
+                } else {
+                    concluirQuadro(receptor);
+                }
+            }
+            sincronizado = true;
+            tamanho = 0;
+            excedido = false;
+        }
+    }
+
+    private void concluirQuadro(Receptor receptor) {
+        int decodificados = decodificarCobs(codificado, tamanho, decodificado);
+        if (decodificados != TAMANHO_QUADRO) {
+            descartar("COBS inválido ou tamanho incorreto (" + decodificados + " bytes)");
+            return;
+        }
+        int crcRecebido = ((decodificado[TAMANHO_REGISTRO] & 0xFF) << 8) | (decodificado[TAMANHO_REGISTRO + 1] & 0xFF);
+        if (Crc16.calcular(decodificado, 0, TAMANHO_REGISTRO) != crcRecebido) {
+            descartar("CRC inválido");
+            return;
+        }
+        quadrosValidos++;
+        int canal = decodificado[0] & 0xFF;
+        float valor = Float.intBitsToFloat(lerInt(decodificado, 1));
+        long instante = ((long) lerInt(decodificado, 5) << 32) | (lerInt(decodificado, 9) & 0xFFFFFFFFL);
+        receptor.aoReceber(canal, valor, instante);
+    }
+
+    private void descartar(String motivo) {
+        quadrosDescartados++;
+        logger.debug("Quadro binário descartado: {}.", motivo);
+    }
+
+    private static int lerInt(byte[] buffer, int inicio) {
+        return ((buffer[inicio] & 0xFF) << 24) | ((buffer[inicio + 1] & 0xFF) << 16)
+                | ((buffer[inicio + 2] & 0xFF) << 8) | (buffer[inicio + 3] & 0xFF);
+    }
+
+    /**
+     * Decodifica um quadro COBS sem o delimitador final.
+     *
+     * @return Quantidade de bytes decodificados, ou -1 caso o quadro seja inválido.
+     */
+    static int decodificarCobs(byte[] entrada, int tamanho, byte[] saida) {
+        int lidos = 0;
+        int escritos = 0;
+        while (lidos < tamanho) {
+            int codigo = entrada[lidos++] & 0xFF;
+            if (lidos + codigo - 1 > tamanho) {
+                return -1;
+            }
+            for (int i = 1; i < codigo; i++) {
+                saida[escritos++] = entrada[lidos++];
+            }
+            if (codigo < 0xFF && lidos < tamanho) {
+                saida[escritos++] = 0;
+            }
+        }
+        return escritos;
+    }
+
+    /**
+     * Descarta o quadro em formação e aguarda o próximo delimitador, como após
+     * a reabertura da porta.
+     */
+    public void reiniciar() {
+        tamanho = 0;
+        excedido = false;
+        sincronizado = false;
+    }
+
+    public long getQuadrosValidos() {
+        return quadrosValidos;
+    }
+
+    public long getQuadrosDescartados() {
+        return quadrosDescartados;
+    }
+}
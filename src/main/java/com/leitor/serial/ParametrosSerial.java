@@ -0,0 +1,60 @@
+package com.leitor.serial;
+
+import com.fazecast.jSerialComm.SerialPort;
+import com.leitor.Configuracao;
+
+/**
+ * Aplica à porta serial a velocidade, os bits de dados, a paridade e os bits
+ * de parada configurados em {@code serial.*}.
+ */
+public final class ParametrosSerial {
+
+    private ParametrosSerial() {
+    }
+
+    /**
+     * Configura os parâmetros de comunicação da porta.
+     *
+     * @param porta Porta serial a ser configurada.
+     * @param configuracao Configuração do leitor.
+     * @throws IllegalArgumentException Caso a paridade ou os bits de parada sejam inválidos.
+     */
+    public static void aplicar(SerialPort porta, Configuracao configuracao) {
+        int baud = configuracao.getInteiro("serial.baud", 9600);
+        int bitsDados = configuracao.getInteiro("serial.bits", 8);
+        int bitsParada = bitsParada(configuracao.getTexto("serial.parada", "1"));
+        int paridade = paridade(configuracao.getTexto("serial.paridade", "nenhuma"));
+        porta.setComPortParameters(baud, bitsDados, bitsParada, paridade);
+        porta.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
+    }
+
+    static int paridade(String valor) {
+        switch (valor.toLowerCase()) {
+            case "nenhuma":
+                return SerialPort.NO_PARITY;
+            case "par":
+                return SerialPort.EVEN_PARITY;
+            case "impar":
+                return SerialPort.ODD_PARITY;
+            case "marca":
+                return SerialPort.MARK_PARITY;
+            case "espaco":
+                return SerialPort.SPACE_PARITY;
+            default:
+                throw new IllegalArgumentException("Paridade inválida: " + valor);
+        }
+    }
+
+    static int bitsParada(String valor) {
+        switch (valor) {
+            case "1":
+                return SerialPort.ONE_STOP_BIT;
+            case "1.5":
+                return SerialPort.ONE_POINT_FIVE_STOP_BITS;
+            case "2":
+                return SerialPort.TWO_STOP_BITS;
+            default:
+                throw new IllegalArgumentException("Bits de parada inválidos: " + valor);
+        }
+    }
+}
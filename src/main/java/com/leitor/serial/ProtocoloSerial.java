@@ -0,0 +1,59 @@
+package com.leitor.serial;
+
+import com.leitor.Configuracao;
+
+/**
+ * Protocolo falado pelo sensor na porta serial, selecionado por
+ * {@code serial.protocolo}.
+ */
+public enum ProtocoloSerial {
+
+    /**
+     * Detecta o protocolo pelo primeiro dado válido recebido: um quadro binário
+     * com CRC correto ou uma linha {@code TEMP:}/{@code UMID:} com valor numérico.
+     */
+    AUTO,
+
+    /** Linhas de texto {@code TEMP:xx.x} e {@code UMID:xx.x}. */
+    ASCII,
+
+    /** Registros binários enquadrados com COBS e validados por CRC16. */
+    COBS;
+
+    /**
+     * Lê o protocolo configurado em {@code serial.protocolo}.
+     *
+     * @param configuracao Configuração do leitor.
+     * @return Protocolo configurado; ASCII por padrão.
+     */
+    public static ProtocoloSerial de(Configuracao configuracao) {
+        return valueOf(configuracao.getTexto("serial.protocolo", "ascii").toUpperCase());
+    }
+
+    /**
+     * Indica se o texto contém ao menos uma leitura ASCII completa, isto é, uma
+     * linha iniciada por {@code TEMP:} ou {@code UMID:}, terminada por quebra de
+     * linha e com valor numérico, como aceita pelo leitor ASCII. Bytes de ruído
+     * ou trechos de quadros binários não bastam.
+     *
+     * @param texto Texto recebido, com as linhas completas.
+     * @return {@code true} caso alguma linha seja uma leitura válida.
+     */
+    public static boolean contemLeituraAscii(String texto) {
+        int inicio = 0;
+        int fim;
+        while ((fim = texto.indexOf('\n', inicio)) >= 0) {
+            String linha = texto.substring(inicio, fim);
+            inicio = fim + 1;
+            if (linha.startsWith("TEMP:") || linha.startsWith("UMID:")) {
+                try {
+                    Float.parseFloat(linha.substring(5).trim());
+                    return true;
+                } catch (NumberFormatException e) {
+                    // Não é uma leitura; segue para a próxima linha
+                }
+            }
+        }
+        return false;
+    }
+}
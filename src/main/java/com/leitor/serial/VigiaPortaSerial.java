@@ -0,0 +1,287 @@
+package com.leitor.serial;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fazecast.jSerialComm.SerialPort;
+import com.leitor.Configuracao;
+
+/**
+ * Vigia (watchdog) da porta serial. Acompanha o tempo desde o último quadro
+ * válido e, quando a porta trava ou fecha, fecha e reabre a porta com espera
+ * exponencial entre as tentativas, devolvendo o controle ao leitor para
+ * reinstalar o listener e reiniciar o enquadramento.
+ * <p>
+ * A recuperação só é contada quando um quadro válido chega após a reabertura;
+ * o tempo indisponível vai do último quadro válido até esse quadro. Enquanto
+ * nenhum quadro chega, as reaberturas seguem a espera exponencial, que só
+ * volta ao valor inicial após uma recuperação.
+ */
+public class VigiaPortaSerial implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(VigiaPortaSerial.class);
+
+    /**
+     * Ação executada após a porta ser reaberta com sucesso.
+     */
+    public interface Recuperacao {
+
+        /**
+         * Chamado com a porta já aberta, para reinstalar o listener e
+         * descartar o estado de enquadramento anterior.
+         */
+        void aoReabrir();
+    }
+
+    // Porta vigiada e ação de recuperação
+    private final SerialPort porta;
+    private final Recuperacao recuperacao;
+
+    // Parâmetros de detecção e de espera entre tentativas, em nanossegundos
+    private final long limiteInatividadeNanos;
+    private final long intervaloVerificacaoMs;
+    private final long esperaInicialNanos;
+    private final long esperaMaximaNanos;
+
+    // Fonte de tempo (System.nanoTime em produção)
+    private final LongSupplier relogio;
+
+    // Instante e quantidade de quadros válidos, atualizados pela thread de leitura
+    private volatile long ultimoQuadroNanos;
+    private volatile long quadrosValidos;
+
+    // Estado da recuperação, alterado apenas pela thread do vigia
+    private volatile boolean indisponivel;
+    private volatile long inicioIndisponibilidadeNanos;
+    private long proximaTentativaNanos;
+    private long esperaAtualNanos;
+
+    // Porta reaberta aguardando o primeiro quadro válido
+    private boolean reaberta;
+    private long reaberturaNanos;
+    private long quadrosNaReabertura;
+
+    // Contadores de recuperações e do tempo total com a porta indisponível
+    private volatile long recuperacoes;
+    private volatile long tempoIndisponivelNanos;
+
+    private ScheduledExecutorService agendador;
+
+    // Impede que uma verificação em andamento reabra a porta após o encerramento
+    private volatile boolean encerrado;
+
+    /**
+     * Cria o vigia da porta serial.
+     *
+     * @param porta Porta serial vigiada.
+     * @param limiteInatividadeMs Tempo sem quadros válidos que caracteriza travamento.
+     * @param intervaloVerificacaoMs Intervalo entre as verificações.
+     * @param esperaInicialMs Espera antes da primeira nova tentativa de abertura.
+     * @param esperaMaximaMs Limite da espera exponencial entre tentativas.
+     * @param recuperacao Ação executada após reabrir a porta.
+     */
+    public VigiaPortaSerial(SerialPort porta, long limiteInatividadeMs, long intervaloVerificacaoMs,
+                            long esperaInicialMs, long esperaMaximaMs, Recuperacao recuperacao) {
+        this(porta, limiteInatividadeMs, intervaloVerificacaoMs, esperaInicialMs, esperaMaximaMs, recuperacao,
+                System::nanoTime);
+    }
+
+    VigiaPortaSerial(SerialPort porta, long limiteInatividadeMs, long intervaloVerificacaoMs,
+                     long esperaInicialMs, long esperaMaximaMs, Recuperacao recuperacao, LongSupplier relogio) {
+        this.porta = porta;
+        this.recuperacao = recuperacao;
+        this.limiteInatividadeNanos = TimeUnit.MILLISECONDS.toNanos(limiteInatividadeMs);
+        this.intervaloVerificacaoMs = intervaloVerificacaoMs;
+        this.esperaInicialNanos = TimeUnit.MILLISECONDS.toNanos(esperaInicialMs);
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.relogio = relogio;
+        this.ultimoQuadroNanos = relogio.getAsLong();
+        this.esperaAtualNanos = esperaInicialNanos;
+    }
+
+    /**
+     * Cria o vigia a partir das chaves {@code serial.vigia.*} da configuração.
+     *
+     * @param porta Porta serial vigiada.
+     * @param configuracao Configuração do leitor.
+     * @param recuperacao Ação executada após reabrir a porta.
+     * @return Vigia configurado, ou {@code null} caso esteja desabilitado.
+     */
+    public static VigiaPortaSerial criar(SerialPort porta, Configuracao configuracao, Recuperacao recuperacao) {
+        if (!configuracao.getBooleano("serial.vigia.habilitado", true)) {
+            return null;
+        }
+        return new VigiaPortaSerial(porta,
+                configuracao.getLongo("serial.vigia.inatividade.ms", 30000),
+                configuracao.getLongo("serial.vigia.intervalo.ms", 1000),
+                configuracao.getLongo("serial.vigia.espera.ms", 500),
+                configuracao.getLongo("serial.vigia.espera.max.ms", 30000),
+                recuperacao);
+    }
+
+    /**
+     * Inicia as verificações periódicas. Chamadas repetidas não têm efeito.
+     */
+    public synchronized void iniciar() {
+        if (agendador != null) {
+            return;
+        }
+        encerrado = false;
+        ultimoQuadroNanos = relogio.getAsLong();
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vigia-" + porta.getSystemPortName());
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(this::verificarComSeguranca, intervaloVerificacaoMs, intervaloVerificacaoMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra a chegada de um quadro válido da porta serial.
+     */
+    public void registrarQuadroValido() {
+        ultimoQuadroNanos = relogio.getAsLong();
+        quadrosValidos++;
+    }
+
+    private void verificarComSeguranca() {
+        try {
+            verificar();
+        } catch (RuntimeException e) {
+            logger.error("Erro no vigia da porta serial: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Executa uma verificação: detecta travamento ou fechamento da porta e,
+     * quando indisponível, tenta reabri-la respeitando a espera exponencial.
+     * Após o encerramento do vigia, não age sobre a porta.
+     */
+    void verificar() {
+        if (encerrado) {
+            return;
+        }
+        long agora = relogio.getAsLong();
+        if (!indisponivel) {
+            long inativoNanos = agora - ultimoQuadroNanos;
+            boolean aberta = porta.isOpen();
+            if (aberta && inativoNanos <= limiteInatividadeNanos) {
+                return;
+            }
+            if (aberta) {
+                logger.warn("Porta serial [{}] sem quadros válidos há {} ms; reabrindo.",
+                        porta.getSystemPortName(), TimeUnit.NANOSECONDS.toMillis(inativoNanos));
+            } else {
+                logger.warn("Porta serial [{}] fechada; tentando reabrir.", porta.getSystemPortName());
+            }
+            inicioIndisponibilidadeNanos = ultimoQuadroNanos;
+            indisponivel = true;
+            proximaTentativaNanos = agora;
+            fecharPorta();
+        } else if (reaberta && !aguardarPrimeiroQuadro(agora)) {
+            return;
+        }
+        if (agora - proximaTentativaNanos < 0 || encerrado) {
+            return;
+        }
+        if (porta.openPort()) {
+            recuperacao.aoReabrir();
+            reaberta = true;
+            reaberturaNanos = agora;
+            quadrosNaReabertura = quadrosValidos;
+            logger.info("Porta serial [{}] reaberta; aguardando quadros válidos.", porta.getSystemPortName());
+        } else {
+            agendarNovaTentativa(agora);
+            logger.warn("Não foi possível reabrir a porta serial [{}]; nova tentativa em {} ms.",
+                    porta.getSystemPortName(), TimeUnit.NANOSECONDS.toMillis(proximaTentativaNanos - agora));
+        }
+    }
+
+    /**
+     * Acompanha a porta reaberta: conclui a recuperação quando chega um quadro
+     * válido, ou fecha a porta e agenda nova tentativa quando nenhum quadro
+     * chega dentro do limite de inatividade.
+     *
+     * @return {@code true} caso uma nova tentativa de abertura deva ser avaliada.
+     */
+    private boolean aguardarPrimeiroQuadro(long agora) {
+        if (quadrosValidos != quadrosNaReabertura) {
+            long duracaoNanos = ultimoQuadroNanos - inicioIndisponibilidadeNanos;
+            tempoIndisponivelNanos += duracaoNanos;
+            recuperacoes++;
+            reaberta = false;
+            indisponivel = false;
+            esperaAtualNanos = esperaInicialNanos;
+            logger.info("Porta serial [{}] recuperada após {} ms (recuperação nº {}).",
+                    porta.getSystemPortName(), TimeUnit.NANOSECONDS.toMillis(duracaoNanos), recuperacoes);
+            return false;
+        }
+        if (porta.isOpen() && agora - reaberturaNanos <= limiteInatividadeNanos) {
+            return false;
+        }
+        reaberta = false;
+        fecharPorta();
+        agendarNovaTentativa(agora);
+        logger.warn("Nenhum quadro válido na porta serial [{}] após a reabertura; nova tentativa em {} ms.",
+                porta.getSystemPortName(), TimeUnit.NANOSECONDS.toMillis(proximaTentativaNanos - agora));
+        return true;
+    }
+
+    private void fecharPorta() {
+        porta.removeDataListener();
+        porta.closePort();
+    }
+
+    private void agendarNovaTentativa(long agora) {
+        proximaTentativaNanos = agora + esperaAtualNanos;
+        esperaAtualNanos = Math.min(esperaAtualNanos * 2, esperaMaximaNanos);
+    }
+
+    /**
+     * Interrompe as verificações e aguarda o fim da verificação em andamento,
+     * para que a porta não seja reaberta após o retorno.
+     */
+    @Override
+    public synchronized void close() {
+        encerrado = true;
+        if (agendador != null) {
+            agendador.shutdownNow();
+            try {
+                if (!agendador.awaitTermination(5, TimeUnit.SECONDS)) {
+                    logger.warn("Vigia da porta serial [{}] não encerrou a verificação em andamento.",
+                            porta.getSystemPortName());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            agendador = null;
+        }
+    }
+
+    public boolean isIndisponivel() {
+        return indisponivel;
+    }
+
+    public long getRecuperacoes() {
+        return recuperacoes;
+    }
+
+    /**
+     * Retorna o tempo total com a porta indisponível, incluindo a indisponibilidade atual.
+     *
+     * @return Tempo indisponível em milissegundos.
+     */
+    public long getTempoIndisponivelMs() {
+        long total = tempoIndisponivelNanos;
+        if (indisponivel) {
+            total += relogio.getAsLong() - inicioIndisponibilidadeNanos;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(total);
+    }
+}
@@ -0,0 +1,141 @@
+package com.leitor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fazecast.jSerialComm.SerialPort;
+import com.leitor.jfr.GravacaoJfr;
+import com.leitor.jfr.ProcessamentoQuadroEvento;
+import com.leitor.jfr.PublicacaoEvento;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class EventosJfrTest {
+
+    private MqttClient mqttClientMock;
+    private SensorWorker sensorWorker;
+    private Recording gravacao;
+    private Path arquivo;
+
+    @Before
+    public void setup() throws Exception {
+        mqttClientMock = mock(MqttClient.class);
+        when(mqttClientMock.isConnected()).thenReturn(true);
+        sensorWorker = new SensorWorker(mock(SerialPort.class), mqttClientMock);
+
+        gravacao = new Recording();
+        gravacao.enable(ProcessamentoQuadroEvento.class).withThreshold(Duration.ZERO);
+        gravacao.enable(PublicacaoEvento.class).withThreshold(Duration.ZERO);
+        arquivo = Files.createTempFile("leitor", ".jfr");
+    }
+
+    @After
+    public void encerrar() throws Exception {
+        gravacao.close();
+        Files.deleteIfExists(arquivo);
+    }
+
+    private List<RecordedEvent> gravarEventos(String nome) throws Exception {
+        gravacao.stop();
+        gravacao.dump(arquivo);
+        List<RecordedEvent> eventos = new ArrayList<>();
+        for (RecordedEvent evento : RecordingFile.readAllEvents(arquivo)) {
+            if (evento.getEventType().getName().equals(nome)) {
+                eventos.add(evento);
+            }
+        }
+        eventos.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        return eventos;
+    }
+
+    @Test
+    public void deveRegistrarProcessamentoComLinhasDesconhecidas() throws Exception {
+        gravacao.start();
+        sensorWorker.processarDados("TEMP:22.5\nXYZ\nUMID:55.3\n");
+
+        List<RecordedEvent> eventos = gravarEventos("com.leitor.ProcessamentoQuadro");
+
+        assertEquals(1, eventos.size());
+        assertEquals("ASCII", eventos.get(0).getString("protocolo"));
+        assertEquals(3, eventos.get(0).getInt("linhas"));
+        assertEquals(1, eventos.get(0).getInt("desconhecidas"));
+    }
+
+    @Test
+    public void naoDeveIncluirPublicacaoNoEventoDeProcessamento() throws Exception {
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return null;
+        }).when(mqttClientMock).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        gravacao.start();
+        sensorWorker.processarDados("TEMP:22.5\n");
+
+        List<RecordedEvent> processamentos = gravarEventos("com.leitor.ProcessamentoQuadro");
+
+        assertEquals(1, processamentos.size());
+        assertTrue(processamentos.get(0).getDuration().compareTo(Duration.ofMillis(200)) < 0);
+    }
+
+    @Test
+    public void deveRegistrarCadaTentativaDePublicacao() throws Exception {
+        doThrow(new MqttException(MqttException.REASON_CODE_CLIENT_TIMEOUT))
+                .doNothing()
+                .when(mqttClientMock).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        gravacao.start();
+        sensorWorker.publicarNoMQTT("sensores/temperatura", "25.5");
+
+        List<RecordedEvent> eventos = gravarEventos("com.leitor.PublicacaoMqtt");
+
+        assertEquals(2, eventos.size());
+        assertEquals(1, eventos.get(0).getInt("tentativa"));
+        assertFalse(eventos.get(0).getBoolean("sucesso"));
+        assertEquals(2, eventos.get(1).getInt("tentativa"));
+        assertTrue(eventos.get(1).getBoolean("sucesso"));
+        assertEquals("sensores/temperatura", eventos.get(1).getString("topico"));
+        assertEquals(2, eventos.get(1).getInt("qos"));
+    }
+
+    @Test
+    public void deveLimitarIdadeETamanhoDaGravacao() throws Exception {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("jfr.habilitado", "true");
+        propriedades.setProperty("jfr.arquivo", arquivo.toString());
+        propriedades.setProperty("jfr.max.idade.min", "30");
+        propriedades.setProperty("jfr.max.tamanho.mb", "16");
+
+        try (Recording iniciada = GravacaoJfr.iniciar(new Configuracao(propriedades))) {
+            assertEquals(Duration.ofMinutes(30), iniciada.getMaxAge());
+            assertEquals(16L * 1024 * 1024, iniciada.getMaxSize());
+            assertTrue(iniciada.isToDisk());
+        }
+    }
+
+    @Test
+    public void naoDeveIniciarGravacaoQuandoDesabilitada() {
+        assertNull(GravacaoJfr.iniciar(new Configuracao(new Properties())));
+    }
+}
@@ -9,7 +9,9 @@ import io.cucumber.junit.CucumberOptions;
 @CucumberOptions(
     features = "src/test/resources/features", // Caminho correto para as features
     glue = "com.leitor.steps", // Caminho correto para os pacotes contendo as definições dos steps
-    plugin = {"pretty", "html:target/cucumber-reports"}, // Plugins para saída dos relatórios
+    plugin = {"pretty", "html:target/cucumber-reports/index.html",
+              "json:target/cucumber-reports/cucumber.json"}, // Plugins para saída dos relatórios
+    tags = "not @soak and not @desempenho", // Medições de carga: -Dcucumber.filter.tags=@desempenho ou @soak
     monochrome = true
 )
 public class RunCucumberTest {
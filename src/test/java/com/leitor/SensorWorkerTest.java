@@ -3,12 +3,15 @@ package com.leitor;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.eclipse.paho.client.mqttv3.MqttClient;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.MqttPersistenceException;
+import org.mockito.InOrder;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +20,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -26,6 +30,10 @@ import static org.mockito.Mockito.when;
 import com.fazecast.jSerialComm.SerialPort;
 import com.fazecast.jSerialComm.SerialPortDataListener;
 import com.fazecast.jSerialComm.SerialPortEvent;
+import com.leitor.regras.MotorRegras;
+import com.leitor.serial.DecodificadorCobs;
+import com.leitor.serial.ProtocoloSerial;
+import com.leitor.serial.QuadrosCobs;
 
 public class SensorWorkerTest {
 
@@ -49,16 +57,16 @@ public class SensorWorkerTest {
     }
 
     @Test
-    public void devePublicarNoMQTTAposReconexao() throws Exception {
-        // Simula desconexão e reconexão
+    public void devePublicarNoMQTTAposReconexaoSemReconectarNoPublicador() throws Exception {
+        // Simula desconexão e reconexão feita fora do publicador
         when(mqttClientMock.isConnected()).thenReturn(false, true);
-        doNothing().when(mqttClientMock).reconnect();
 
         // Testa publicação no MQTT
         sensorWorker.publicarNoMQTT("sensores/temperatura", "25.5");
 
-        // Verifica que a reconexão foi chamada
-        verify(mqttClientMock, times(1)).reconnect();
+        // Verifica que o publicador não tentou reconectar
+        verify(mqttClientMock, never()).reconnect();
+        verify(mqttClientMock, never()).connect(any(MqttConnectOptions.class));
 
         // Verifica a publicação no tópico MQTT
         verify(mqttClientMock, times(1)).publish(eq("sensores/temperatura"), any(MqttMessage.class));
@@ -240,4 +248,57 @@ public class SensorWorkerTest {
         }
     }
 
+    private void receber(byte[] dados) {
+        sensorWorker.processarBytes(dados, dados.length);
+    }
+
+    @Test
+    public void naoDeveFixarProtocoloPorByteDeRuidoNoEnlaceAscii() throws Exception {
+        sensorWorker.setProtocolo(ProtocoloSerial.AUTO);
+
+        // Um 0x00 isolado (condição de break) não é um quadro binário válido
+        receber(new byte[] {0});
+        assertEquals(ProtocoloSerial.AUTO, sensorWorker.getProtocolo());
+
+        // A linha corrompida pelo ruído não é uma leitura; a seguinte fixa o protocolo
+        receber("TEMP:22.5\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(ProtocoloSerial.AUTO, sensorWorker.getProtocolo());
+        receber("TEMP:22.6\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(ProtocoloSerial.ASCII, sensorWorker.getProtocolo());
+        verify(mqttClientMock, times(1)).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+    }
+
+    @Test
+    public void naoDeveFixarAsciiAoEntrarNoMeioDeUmQuadroBinario() throws Exception {
+        sensorWorker.setProtocolo(ProtocoloSerial.AUTO);
+
+        // Primeiro bloco: poucos bytes imprimíveis do fim de um quadro em andamento
+        receber(new byte[] {0x41});
+        receber(new byte[] {0x42, 0x43});
+        assertEquals(ProtocoloSerial.AUTO, sensorWorker.getProtocolo());
+
+        receber(QuadrosCobs.concatenar(new byte[] {0x44, 0},
+                QuadrosCobs.quadro(DecodificadorCobs.CANAL_TEMPERATURA, 25.5f, 1L)));
+        assertEquals(ProtocoloSerial.COBS, sensorWorker.getProtocolo());
+        verify(mqttClientMock, times(1)).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        assertEquals(1, sensorWorker.getDecodificador().getQuadrosValidos());
+    }
+
+    @Test
+    public void devePublicarAlarmeAntesDaLeituraQueODisparou() throws Exception {
+        sensorWorker.setMotorRegras(new MotorRegras(Arrays.asList(
+                MotorRegras.compilar("temperatura > 40 por 0s"),
+                MotorRegras.compilar("umidade > 90 por 0s"))));
+
+        sensorWorker.processarDados("TEMP:41.0\n");
+        sensorWorker.setProtocolo(ProtocoloSerial.COBS);
+        receber(QuadrosCobs.concatenar(new byte[] {0},
+                QuadrosCobs.quadro(DecodificadorCobs.CANAL_UMIDADE, 95f, 1L)));
+
+        InOrder ordem = inOrder(mqttClientMock);
+        ordem.verify(mqttClientMock).publish(eq("sensores/alarmes"), any(MqttMessage.class));
+        ordem.verify(mqttClientMock).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        ordem.verify(mqttClientMock).publish(eq("sensores/alarmes"), any(MqttMessage.class));
+        ordem.verify(mqttClientMock).publish(eq("sensores/umidade"), any(MqttMessage.class));
+    }
 }
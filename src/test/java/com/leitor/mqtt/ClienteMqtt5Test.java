@@ -0,0 +1,79 @@
+package com.leitor.mqtt;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.paho.mqttv5.client.IMqttToken;
+import org.eclipse.paho.mqttv5.client.MqttClientException;
+import org.eclipse.paho.mqttv5.client.MqttClient;
+import org.eclipse.paho.mqttv5.client.MqttConnectionOptions;
+import org.eclipse.paho.mqttv5.common.MqttException;
+import org.eclipse.paho.mqttv5.common.MqttMessage;
+import org.eclipse.paho.mqttv5.common.packet.MqttProperties;
+import org.eclipse.paho.mqttv5.common.packet.UserProperty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ClienteMqtt5Test {
+
+    private MqttClient mqttClientMock;
+    private MqttConnectionOptions opcoes;
+    private ClienteMqtt5 cliente;
+
+    @Before
+    public void setup() {
+        mqttClientMock = mock(MqttClient.class);
+        opcoes = ClienteMqtt5.criarOpcoes(600);
+        cliente = new ClienteMqtt5(mqttClientMock, opcoes);
+    }
+
+    @Test
+    public void deveRetomarSessaoAoReconectar() throws Exception {
+        IMqttToken token = mock(IMqttToken.class);
+        MqttProperties resposta = new MqttProperties();
+        resposta.setTopicAliasMaximum(10);
+        when(token.getResponseProperties()).thenReturn(resposta);
+        when(mqttClientMock.connectWithResult(any(MqttConnectionOptions.class))).thenReturn(token);
+
+        cliente.conectar();
+
+        verify(mqttClientMock).connectWithResult(opcoes);
+        assertFalse(opcoes.isCleanStart());
+        assertEquals(Long.valueOf(600), opcoes.getSessionExpiryInterval());
+    }
+
+    @Test
+    public void deveEnviarInstanteDaLeituraEmPropriedadeDeUsuario() throws Exception {
+        cliente.publicar("sensores/temperatura", "25.5".getBytes(StandardCharsets.UTF_8), 1, 1737500000000L);
+
+        ArgumentCaptor<MqttMessage> captor = ArgumentCaptor.forClass(MqttMessage.class);
+        verify(mqttClientMock).publish(eq("sensores/temperatura"), captor.capture());
+        MqttMessage msg = captor.getValue();
+        assertEquals("25.5", new String(msg.getPayload(), StandardCharsets.UTF_8));
+        assertEquals(1, msg.getQos());
+        assertEquals(new UserProperty(ClienteMqtt5.PROPRIEDADE_INSTANTE, "1737500000000"),
+                msg.getProperties().getUserProperties().get(0));
+    }
+
+    @Test
+    public void deveConverterErroDoClienteMqtt5() throws Exception {
+        doThrow(new MqttException(MqttClientException.REASON_CODE_CLIENT_NOT_CONNECTED))
+                .when(mqttClientMock).publish(any(String.class), any(MqttMessage.class));
+
+        try {
+            cliente.publicar("sensores/umidade", new byte[0], 2, 0L);
+            fail("A publicação deveria falhar.");
+        } catch (org.eclipse.paho.client.mqttv3.MqttException e) {
+            assertEquals(MqttClientException.REASON_CODE_CLIENT_NOT_CONNECTED, e.getReasonCode());
+        }
+    }
+}
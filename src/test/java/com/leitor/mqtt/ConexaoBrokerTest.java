@@ -0,0 +1,125 @@
+package com.leitor.mqtt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.resilience4j.retry.RetryConfig;
+
+public class ConexaoBrokerTest {
+
+    private static final String TOPICO_LEITURA = "sensores/temperatura";
+    private static final String TOPICO_ALARMES = "sensores/alarmes";
+
+    private MqttClient mqttClientMock;
+    private ConexaoBroker conexao;
+
+    // Estado da conexão simulada e tópicos publicados, em ordem
+    private final AtomicBoolean conectado = new AtomicBoolean();
+    private final AtomicBoolean brokerDisponivel = new AtomicBoolean(true);
+    private final List<String> publicados = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setup() throws MqttException {
+        mqttClientMock = mock(MqttClient.class);
+        when(mqttClientMock.isConnected()).thenAnswer(invocation -> conectado.get());
+        doAnswer(invocation -> {
+            if (!brokerDisponivel.get()) {
+                throw new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR);
+            }
+            conectado.set(true);
+            return null;
+        }).when(mqttClientMock).connect(any(MqttConnectOptions.class));
+        doAnswer(invocation -> {
+            publicados.add(invocation.getArgument(0));
+            return null;
+        }).when(mqttClientMock).publish(anyString(), any(MqttMessage.class));
+    }
+
+    @After
+    public void encerrar() {
+        if (conexao != null) {
+            conexao.close();
+        }
+    }
+
+    private void criarConexao(int tentativas, long esperaMs) {
+        GerenciadorConexao gerenciador = new GerenciadorConexao("broker",
+                new ClienteMqtt3(mqttClientMock, new MqttConnectOptions()), 10, 40, 10);
+        RetryConfig retryConfig = RetryConfig.custom()
+                .maxAttempts(tentativas)
+                .waitDuration(Duration.ofMillis(esperaMs))
+                .build();
+        conexao = new ConexaoBroker("broker", true, gerenciador, retryConfig, 100);
+    }
+
+    private static Entrega entrega(String topico) {
+        return new Entrega(topico, "{}".getBytes(StandardCharsets.UTF_8), 1, System.currentTimeMillis(),
+                Quorum.QUALQUER, 1);
+    }
+
+    @Test
+    public void deveEnviarAlarmeDuranteEsperaDoRetryDaLeitura() throws Exception {
+        doAnswer(invocation -> {
+            throw new MqttException(MqttException.REASON_CODE_CLIENT_TIMEOUT);
+        }).when(mqttClientMock).publish(eq(TOPICO_LEITURA), any(MqttMessage.class));
+        criarConexao(3, 10000);
+
+        Entrega leitura = entrega(TOPICO_LEITURA);
+        conexao.enfileirar(leitura);
+        verify(mqttClientMock, timeout(2000)).publish(eq(TOPICO_LEITURA), any(MqttMessage.class));
+
+        // A leitura aguarda 10 s pela próxima tentativa; o alarme não espera por ela
+        Entrega alarme = entrega(TOPICO_ALARMES);
+        conexao.enfileirarPrioritaria(alarme);
+        alarme.getFuturo().get(1, TimeUnit.SECONDS);
+
+        assertFalse(leitura.getFuturo().isDone());
+        verify(mqttClientMock, times(1)).publish(eq(TOPICO_LEITURA), any(MqttMessage.class));
+        assertEquals(List.of(TOPICO_ALARMES), publicados);
+    }
+
+    @Test
+    public void deveAguardarConexaoSemConsumirTentativasEEnviarAlarmePrimeiro() throws Exception {
+        brokerDisponivel.set(false);
+        criarConexao(2, 10);
+
+        Entrega leitura = entrega(TOPICO_LEITURA);
+        conexao.enfileirar(leitura);
+        // Tempo suficiente para esgotar as tentativas caso fossem consumidas sem conexão
+        Thread.sleep(200);
+        Entrega alarme = entrega(TOPICO_ALARMES);
+        conexao.enfileirarPrioritaria(alarme);
+        assertEquals(SaudeConexao.INDISPONIVEL, conexao.getSaude());
+
+        brokerDisponivel.set(true);
+        alarme.getFuturo().get(2, TimeUnit.SECONDS);
+        leitura.getFuturo().get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of(TOPICO_ALARMES, TOPICO_LEITURA), publicados);
+        assertEquals(0, conexao.getFalhas());
+        assertEquals(SaudeConexao.SAUDAVEL, conexao.getSaude());
+    }
+}
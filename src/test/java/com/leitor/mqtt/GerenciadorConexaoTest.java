@@ -0,0 +1,145 @@
+package com.leitor.mqtt;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GerenciadorConexaoTest {
+
+    private MqttClient mqttClientMock;
+    private GerenciadorConexao gerenciador;
+
+    // Estado da conexão simulada pelo mock e quantidade de conexões que ainda devem falhar
+    private final AtomicBoolean conectado = new AtomicBoolean();
+    private final AtomicInteger falhasConexao = new AtomicInteger();
+
+    @Before
+    public void setup() throws MqttException {
+        mqttClientMock = mock(MqttClient.class);
+        when(mqttClientMock.isConnected()).thenAnswer(invocation -> conectado.get());
+        doAnswer(invocation -> {
+            if (falhasConexao.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                throw new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR);
+            }
+            conectado.set(true);
+            return null;
+        }).when(mqttClientMock).connect(any(MqttConnectOptions.class));
+        gerenciador = new GerenciadorConexao("broker", new ClienteMqtt3(mqttClientMock, new MqttConnectOptions()),
+                10, 40, 10);
+    }
+
+    @After
+    public void encerrar() {
+        gerenciador.close();
+    }
+
+    private void aguardarEstado(EstadoConexao esperado) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (gerenciador.getEstado() != esperado) {
+            if (System.nanoTime() > limite) {
+                fail("Estado " + esperado + " não alcançado; estado atual: " + gerenciador.getEstado());
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void deveConectarNaPrimeiraTentativa() throws Exception {
+        gerenciador.iniciar();
+
+        assertTrue(gerenciador.aguardarPrimeiraTentativa(2000));
+        assertEquals(EstadoConexao.CONECTADO, gerenciador.getEstado());
+        verify(mqttClientMock, times(1)).connect(any(MqttConnectOptions.class));
+        assertEquals(0, gerenciador.getQuedas());
+    }
+
+    @Test
+    public void deveAguardarEntreTentativasAteConectar() throws Exception {
+        doThrow(new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR))
+                .doThrow(new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR))
+                .doAnswer(invocation -> {
+                    conectado.set(true);
+                    return null;
+                })
+                .when(mqttClientMock).connect(any(MqttConnectOptions.class));
+        gerenciador.iniciar();
+
+        assertFalse(gerenciador.aguardarPrimeiraTentativa(2000));
+        aguardarEstado(EstadoConexao.CONECTADO);
+        verify(mqttClientMock, times(3)).connect(any(MqttConnectOptions.class));
+    }
+
+    @Test
+    public void deveReconectarAposQuedaERegistrarLatencia() throws Exception {
+        gerenciador.iniciar();
+        assertTrue(gerenciador.aguardarPrimeiraTentativa(2000));
+
+        // O mock já está em uso pela thread do gerenciador; a falha vem do contador
+        falhasConexao.set(1);
+        conectado.set(false);
+        gerenciador.sinalizarFalha();
+
+        verify(mqttClientMock, timeout(2000).times(3)).connect(any(MqttConnectOptions.class));
+        aguardarEstado(EstadoConexao.CONECTADO);
+        assertEquals(1, gerenciador.getQuedas());
+        assertEquals(1, gerenciador.getReconexoes());
+        assertTrue(gerenciador.getUltimaLatenciaReconexaoMs() >= 5);
+        assertEquals(gerenciador.getUltimaLatenciaReconexaoMs(), gerenciador.getMaiorLatenciaReconexaoMs());
+    }
+
+    @Test
+    public void deveEncerrarDuranteAEsperaEFecharOCliente() throws Exception {
+        doThrow(new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR))
+                .when(mqttClientMock).connect(any(MqttConnectOptions.class));
+        doNothing().when(mqttClientMock).close();
+        gerenciador = new GerenciadorConexao("broker", new ClienteMqtt3(mqttClientMock, new MqttConnectOptions()),
+                60000, 60000, 10);
+        gerenciador.iniciar();
+        aguardarEstado(EstadoConexao.AGUARDANDO);
+
+        gerenciador.close();
+
+        assertEquals(EstadoConexao.ENCERRADO, gerenciador.getEstado());
+        verify(mqttClientMock, times(1)).connect(any(MqttConnectOptions.class));
+        verify(mqttClientMock).close();
+    }
+
+    @Test
+    public void deveAguardarEsperaSorteadaAntesDaPrimeiraReconexao() throws Exception {
+        gerenciador = new GerenciadorConexao("broker", new ClienteMqtt3(mqttClientMock, new MqttConnectOptions()),
+                400, 400, 10);
+        gerenciador.iniciar();
+        assertTrue(gerenciador.aguardarPrimeiraTentativa(2000));
+
+        long queda = System.nanoTime();
+        conectado.set(false);
+        aguardarEstado(EstadoConexao.AGUARDANDO);
+        verify(mqttClientMock, times(1)).connect(any(MqttConnectOptions.class));
+
+        aguardarEstado(EstadoConexao.CONECTADO);
+        verify(mqttClientMock, times(2)).connect(any(MqttConnectOptions.class));
+        // Entre metade e a totalidade da espera inicial antes de discar novamente
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queda) >= 200);
+        assertEquals(1, gerenciador.getReconexoes());
+    }
+}
@@ -0,0 +1,171 @@
+package com.leitor.mqtt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.github.resilience4j.retry.RetryConfig;
+
+public class PublicadorFragmentadoTest {
+
+    private static final String TOPICO_TEMPERATURA = "sensores/temperatura";
+    private static final String TOPICO_ALARMES = "sensores/alarmes";
+
+    /**
+     * Comportamento do publish de um fragmento, trocado pelos testes sem
+     * reconfigurar mocks já em uso pelas threads das conexões.
+     */
+    private interface Publicacao {
+        void publicar(String topico, MqttMessage mensagem) throws Exception;
+    }
+
+    private MqttClient[] clientesMock;
+    private final Publicacao[] publicacoes = new Publicacao[2];
+    private PublicadorFragmentado publicador;
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @Before
+    public void setup() throws MqttException {
+        RetryConfig retryConfig = RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(10))
+                .build();
+        clientesMock = new MqttClient[] {mock(MqttClient.class), mock(MqttClient.class)};
+        List<ConexaoBroker> fragmentos = new ArrayList<>();
+        for (int i = 0; i < clientesMock.length; i++) {
+            int fragmento = i;
+            publicacoes[i] = (topico, mensagem) -> { };
+            when(clientesMock[i].isConnected()).thenReturn(true);
+            // Todo o stubbing é feito antes de as conexões iniciarem as suas threads
+            doAnswer(invocation -> {
+                publicacoes[fragmento].publicar(invocation.getArgument(0), invocation.getArgument(1));
+                return null;
+            }).when(clientesMock[i]).publish(any(String.class), any(MqttMessage.class));
+            fragmentos.add(new ConexaoBroker("broker#" + i, true,
+                    new ClienteMqtt3(clientesMock[i], new MqttConnectOptions()), retryConfig, 100));
+        }
+        publicador = new PublicadorFragmentado(fragmentos, 1);
+    }
+
+    @After
+    public void encerrar() {
+        liberar.countDown();
+        publicador.close();
+    }
+
+    private String topicoEmOutroFragmento(String topico) {
+        int fragmento = publicador.indiceFragmento(topico);
+        for (int i = 0; ; i++) {
+            String candidato = "sensores/sensor" + i;
+            if (publicador.indiceFragmento(candidato) != fragmento) {
+                return candidato;
+            }
+        }
+    }
+
+    private String topicoNoFragmento(int fragmento) {
+        for (int i = 0; ; i++) {
+            String candidato = "sensores/sensor" + i;
+            if (publicador.indiceFragmento(candidato) == fragmento) {
+                return candidato;
+            }
+        }
+    }
+
+    @Test
+    public void deveEnviarMensagemPrioritariaMesmoComFilaCheia() throws Exception {
+        int fragmento = publicador.indiceFragmento(TOPICO_ALARMES);
+        String topicoLeituras = topicoNoFragmento(fragmento);
+        List<String> recebidas = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean primeira = new AtomicBoolean(true);
+        publicacoes[fragmento] = (topico, mensagem) -> {
+            recebidas.add(topico);
+            if (primeira.getAndSet(false)) {
+                liberar.await();
+            }
+        };
+
+        // A primeira leitura prende a thread de envio e as demais lotam a fila
+        publicador.publicar(topicoLeituras, "0");
+        verify(clientesMock[fragmento], timeout(1000)).publish(eq(topicoLeituras), any(MqttMessage.class));
+        for (int i = 1; i <= 150; i++) {
+            publicador.publicar(topicoLeituras, Integer.toString(i));
+        }
+        CompletableFuture<Void> alarme = publicador.publicarPrioritario(TOPICO_ALARMES, "alarme", 0L);
+
+        liberar.countDown();
+        alarme.get(2, TimeUnit.SECONDS);
+
+        assertEquals(TOPICO_ALARMES, recebidas.get(1));
+        assertEquals(50, publicador.getFragmentos().get(fragmento).getDescartadas());
+    }
+
+    @Test
+    public void deveManterOrdemDentroDoTopico() throws Exception {
+        int fragmento = publicador.indiceFragmento(TOPICO_TEMPERATURA);
+        List<String> recebidas = Collections.synchronizedList(new ArrayList<>());
+        publicacoes[fragmento] = (topico, mensagem) -> {
+            if (TOPICO_TEMPERATURA.equals(topico)) {
+                recebidas.add(new String(mensagem.getPayload(), StandardCharsets.UTF_8));
+            }
+        };
+
+        CompletableFuture<?>[] futuros = new CompletableFuture<?>[5];
+        for (int i = 0; i < futuros.length; i++) {
+            futuros[i] = publicador.publicar(TOPICO_TEMPERATURA, "2" + i + ".0");
+        }
+        CompletableFuture.allOf(futuros).get(2, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("20.0", "21.0", "22.0", "23.0", "24.0"), recebidas);
+        verify(clientesMock[1 - fragmento], never()).publish(any(String.class), any(MqttMessage.class));
+    }
+
+    @Test
+    public void devePublicarEmParaleloEntreFragmentos() throws Exception {
+        int fragmentoLento = publicador.indiceFragmento(TOPICO_TEMPERATURA);
+        String outroTopico = topicoEmOutroFragmento(TOPICO_TEMPERATURA);
+        assertNotEquals(fragmentoLento, publicador.indiceFragmento(outroTopico));
+        publicacoes[fragmentoLento] = (topico, mensagem) -> {
+            if (TOPICO_TEMPERATURA.equals(topico)) {
+                liberar.await();
+            }
+        };
+
+        CompletableFuture<Void> lenta = publicador.publicar(TOPICO_TEMPERATURA, "25.5");
+        publicador.publicar(outroTopico, "60.0").get(2, TimeUnit.SECONDS);
+
+        assertFalse(lenta.isDone());
+        verify(clientesMock[fragmentoLento], timeout(1000)).publish(eq(TOPICO_TEMPERATURA), any(MqttMessage.class));
+        assertEquals(1, publicador.getFragmentos().get(1 - fragmentoLento).getPublicadas());
+
+        liberar.countDown();
+        lenta.get(2, TimeUnit.SECONDS);
+        assertEquals(0, publicador.getFragmentos().get(fragmentoLento).getTamanhoFila());
+    }
+}
@@ -0,0 +1,145 @@
+package com.leitor.mqtt;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.leitor.Configuracao;
+
+import io.github.resilience4j.retry.RetryConfig;
+
+public class PublicadorMultiBrokerTest {
+
+    private MqttClient primarioMock;
+    private MqttClient secundarioMock;
+    private PublicadorMultiBroker publicador;
+
+    // Libera o broker secundário quando ele é configurado como lento
+    private final CountDownLatch liberarSecundario = new CountDownLatch(1);
+
+    @Before
+    public void setup() {
+        primarioMock = mock(MqttClient.class);
+        secundarioMock = mock(MqttClient.class);
+        when(primarioMock.isConnected()).thenReturn(true);
+        when(secundarioMock.isConnected()).thenReturn(true);
+    }
+
+    @After
+    public void encerrar() {
+        liberarSecundario.countDown();
+        if (publicador != null) {
+            publicador.close();
+        }
+    }
+
+    private PublicadorMultiBroker criarPublicador(Quorum quorum) {
+        RetryConfig retryConfig = RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(10))
+                .build();
+        MqttConnectOptions opcoes = new MqttConnectOptions();
+        ConexaoBroker primario = new ConexaoBroker("primario", true,
+                new ClienteMqtt3(primarioMock, opcoes), retryConfig, 10);
+        ConexaoBroker secundario = new ConexaoBroker("secundario", false,
+                new ClienteMqtt3(secundarioMock, opcoes), retryConfig, 10);
+        return new PublicadorMultiBroker(Arrays.asList(primario, secundario), quorum, 1);
+    }
+
+    private void secundarioLento() throws MqttException {
+        doAnswer(invocation -> {
+            liberarSecundario.await();
+            return null;
+        }).when(secundarioMock).publish(any(String.class), any(MqttMessage.class));
+    }
+
+    @Test
+    public void deveConcluirComQualquerBrokerSemEsperarOBrokerLento() throws Exception {
+        secundarioLento();
+        publicador = criarPublicador(Quorum.QUALQUER);
+
+        publicador.publicar("sensores/temperatura", "25.5").get(2, TimeUnit.SECONDS);
+
+        verify(primarioMock, timeout(1000)).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        assertEquals(1, publicador.getConexoes().get(0).getPublicadas());
+        assertEquals(0, publicador.getConexoes().get(1).getPublicadas());
+    }
+
+    @Test
+    public void deveAguardarTodosOsBrokersQuandoQuorumForTodos() throws Exception {
+        secundarioLento();
+        publicador = criarPublicador(Quorum.TODOS);
+
+        CompletableFuture<Void> futuro = publicador.publicar("sensores/temperatura", "25.5");
+        verify(primarioMock, timeout(1000)).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        assertFalse(futuro.isDone());
+
+        liberarSecundario.countDown();
+        futuro.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void deveFalharQuandoPrimarioFalharComQuorumPrimario() throws Exception {
+        doThrow(new MqttException(MqttException.REASON_CODE_CLIENT_TIMEOUT))
+                .when(primarioMock).publish(any(String.class), any(MqttMessage.class));
+        publicador = criarPublicador(Quorum.PRIMARIO);
+
+        try {
+            publicador.publicar("sensores/umidade", "60.0").get(2, TimeUnit.SECONDS);
+            fail("A publicação deveria falhar sem a confirmação do primário.");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof MqttException);
+        }
+        verify(secundarioMock, timeout(1000)).publish(eq("sensores/umidade"), any(MqttMessage.class));
+        assertEquals(SaudeConexao.DEGRADADA, publicador.getConexoes().get(0).getSaude());
+    }
+
+    @Test
+    public void deveFazerFailoverQuandoUmBrokerEstiverFora() throws Exception {
+        when(primarioMock.isConnected()).thenReturn(false);
+        doThrow(new MqttException(MqttException.REASON_CODE_SERVER_CONNECT_ERROR))
+                .when(primarioMock).connect(any(MqttConnectOptions.class));
+        publicador = criarPublicador(Quorum.QUALQUER);
+
+        publicador.publicar("sensores/temperatura", "25.5").get(2, TimeUnit.SECONDS);
+
+        verify(secundarioMock, timeout(1000)).publish(eq("sensores/temperatura"), any(MqttMessage.class));
+        assertTrue(publicador.isConectado());
+    }
+
+    @Test
+    public void deveRejeitarListaDeBrokersVazia() throws Exception {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("mqtt.brokers", " ,");
+        try {
+            PublicadorMultiBroker.criar(new Configuracao(propriedades), "leitor");
+            fail("Lista de brokers vazia deveria ser rejeitada");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("mqtt.brokers"));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.leitor.regras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class MotorRegrasTest {
+
+    private final List<String> alarmes = new ArrayList<>();
+
+    private final MotorRegras.Disparo disparo =
+            (regra, valor, instante) -> alarmes.add(regra.getExpressao() + "=" + valor + "@" + instante);
+
+    @Test
+    public void deveDispararLimiteSustentadoUmaVezERearmar() {
+        MotorRegras motor = new MotorRegras(Arrays.asList(MotorRegras.compilar("temperatura > 40 por 30s")));
+
+        motor.avaliar(Grandeza.TEMPERATURA, 41f, 0, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 42f, 29999, disparo);
+        assertTrue(alarmes.isEmpty());
+
+        motor.avaliar(Grandeza.TEMPERATURA, 41.5f, 30000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 43f, 45000, disparo);
+        assertEquals(Arrays.asList("temperatura > 40 por 30s=41.5@30000"), alarmes);
+
+        // Volta ao normal, rearma e precisa de novos 30 s acima do limite
+        motor.avaliar(Grandeza.TEMPERATURA, 39f, 46000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 41f, 47000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 41f, 76999, disparo);
+        assertEquals(1, alarmes.size());
+        motor.avaliar(Grandeza.TEMPERATURA, 41f, 77000, disparo);
+        assertEquals(2, motor.getDisparos());
+    }
+
+    @Test
+    public void deveReiniciarContagemQuandoValorVoltaAoLimite() {
+        MotorRegras motor = new MotorRegras(Arrays.asList(MotorRegras.compilar("temperatura < 5 por 10s")));
+
+        motor.avaliar(Grandeza.TEMPERATURA, 4f, 0, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 6f, 5000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 4f, 9000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 4f, 15000, disparo);
+        assertTrue(alarmes.isEmpty());
+
+        motor.avaliar(Grandeza.TEMPERATURA, 3f, 19000, disparo);
+        assertEquals(1, alarmes.size());
+    }
+
+    @Test
+    public void deveDispararTaxaDeVariacaoDentroDaJanela() {
+        MotorRegras motor = new MotorRegras(Arrays.asList(MotorRegras.compilar("umidade sobe 5 por min")));
+
+        // Alta lenta: 4 pontos por minuto, lida a cada segundo
+        for (int s = 0; s <= 120; s++) {
+            motor.avaliar(Grandeza.UMIDADE, 50f + s * 4f / 60f, s * 1000L, disparo);
+        }
+        assertTrue(alarmes.isEmpty());
+
+        // Alta rápida: 6 pontos em 30 s
+        float base = 58f;
+        for (int s = 1; s <= 30; s++) {
+            motor.avaliar(Grandeza.UMIDADE, base + s * 0.2f, 120000 + s * 1000L, disparo);
+        }
+        assertEquals(1, alarmes.size());
+        assertTrue(alarmes.get(0).startsWith("umidade sobe 5 por min="));
+    }
+
+    @Test
+    public void deveIgnorarValoresNaoFinitos() {
+        MotorRegras motor = new MotorRegras(Arrays.asList(
+                MotorRegras.compilar("umidade sobe 5 por min"),
+                MotorRegras.compilar("temperatura > 40 por 0s")));
+
+        motor.avaliar(Grandeza.UMIDADE, 50f, 0, disparo);
+        motor.avaliar(Grandeza.UMIDADE, Float.NaN, 10000, disparo);
+        motor.avaliar(Grandeza.UMIDADE, Float.POSITIVE_INFINITY, 12000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, Float.POSITIVE_INFINITY, 12000, disparo);
+        motor.avaliar(Grandeza.UMIDADE, 51f, 20000, disparo);
+        assertTrue(alarmes.isEmpty());
+
+        // A janela segue com amostras válidas e a regra continua armada
+        motor.avaliar(Grandeza.UMIDADE, 56f, 30000, disparo);
+        assertEquals(Arrays.asList("umidade sobe 5 por min=56.0@30000"), alarmes);
+    }
+
+    @Test
+    public void deveAvaliarSomenteRegrasDaGrandeza() {
+        MotorRegras motor = new MotorRegras(Arrays.asList(
+                MotorRegras.compilar("temperatura > 40 por 0s"),
+                MotorRegras.compilar("umidade desce 10 por 2min")));
+
+        assertTrue(motor.possuiRegras(Grandeza.UMIDADE));
+        motor.avaliar(Grandeza.UMIDADE, 80f, 0, disparo);
+        motor.avaliar(Grandeza.UMIDADE, 69f, 90000, disparo);
+        motor.avaliar(Grandeza.TEMPERATURA, 41f, 90000, disparo);
+
+        assertEquals(Arrays.asList("umidade desce 10 por 2min=69.0@90000", "temperatura > 40 por 0s=41.0@90000"),
+                alarmes);
+    }
+
+    @Test
+    public void deveRejeitarExpressoesInvalidas() {
+        for (String expressao : new String[] {"temperatura > 40", "pressao > 1 por 1s", "umidade = 5 por min",
+                "temperatura > quente por 30s", "temperatura > 40 por 30h"}) {
+            try {
+                MotorRegras.compilar(expressao);
+                fail("Expressão deveria ser rejeitada: " + expressao);
+            } catch (IllegalArgumentException e) {
+                assertFalse(e.getMessage().isEmpty());
+            }
+        }
+    }
+}
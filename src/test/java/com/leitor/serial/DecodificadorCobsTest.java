@@ -0,0 +1,86 @@
+package com.leitor.serial;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import static com.leitor.serial.QuadrosCobs.concatenar;
+import static com.leitor.serial.QuadrosCobs.quadro;
+
+public class DecodificadorCobsTest {
+
+    private final DecodificadorCobs decodificador = new DecodificadorCobs();
+    private final List<String> recebidas = new ArrayList<>();
+
+    private final DecodificadorCobs.Receptor receptor =
+            (canal, valor, instante) -> recebidas.add(canal + ":" + valor + "@" + instante);
+
+    private void decodificar(byte[] dados) {
+        decodificador.decodificar(dados, dados.length, receptor);
+    }
+
+    @Test
+    public void deveDecodificarQuadrosAposSincronizar() {
+        decodificar(concatenar(new byte[] {0},
+                quadro(DecodificadorCobs.CANAL_TEMPERATURA, 25.5f, 1737500000000L),
+                quadro(DecodificadorCobs.CANAL_UMIDADE, 60.0f, 1737500000100L)));
+
+        assertEquals(2, recebidas.size());
+        assertEquals("1:25.5@1737500000000", recebidas.get(0));
+        assertEquals("2:60.0@1737500000100", recebidas.get(1));
+        assertEquals(2, decodificador.getQuadrosValidos());
+    }
+
+    @Test
+    public void deveIgnorarBytesAntesDoPrimeiroDelimitador() {
+        byte[] cauda = {0x11, 0x22, 0x33};
+        decodificar(concatenar(cauda, new byte[] {0}, quadro(DecodificadorCobs.CANAL_TEMPERATURA, 21.0f, 0L)));
+
+        assertEquals(1, recebidas.size());
+        assertEquals(0, decodificador.getQuadrosDescartados());
+    }
+
+    @Test
+    public void deveMontarQuadroRecebidoEmBlocos() {
+        byte[] dados = concatenar(new byte[] {0}, quadro(DecodificadorCobs.CANAL_UMIDADE, 55.25f, 42L));
+        for (byte b : dados) {
+            decodificador.decodificar(new byte[] {b}, 1, receptor);
+        }
+
+        assertEquals(1, recebidas.size());
+        assertEquals("2:55.25@42", recebidas.get(0));
+    }
+
+    @Test
+    public void deveDescartarQuadroCorrompidoERessincronizar() {
+        byte[] corrompido = quadro(DecodificadorCobs.CANAL_TEMPERATURA, 25.5f, 1L);
+        corrompido[3] ^= 0x01;
+        byte[] excedido = new byte[100];
+        Arrays.fill(excedido, (byte) 0x7F);
+        excedido[excedido.length - 1] = 0;
+
+        decodificar(concatenar(new byte[] {0}, corrompido, excedido,
+                quadro(DecodificadorCobs.CANAL_TEMPERATURA, 26.0f, 2L)));
+
+        assertEquals(1, recebidas.size());
+        assertEquals("1:26.0@2", recebidas.get(0));
+        assertEquals(2, decodificador.getQuadrosDescartados());
+    }
+
+    @Test
+    public void deveReconhecerSomenteLeiturasAsciiCompletas() {
+        assertTrue(ProtocoloSerial.contemLeituraAscii("lixo\nTEMP:25.5\n"));
+        assertTrue(ProtocoloSerial.contemLeituraAscii("UMID: 60.0\r\n"));
+        assertFalse(ProtocoloSerial.contemLeituraAscii("TEMP:25.5"));
+        assertFalse(ProtocoloSerial.contemLeituraAscii("\0TEMP:25.5\n"));
+        assertFalse(ProtocoloSerial.contemLeituraAscii("TEMP:quente\n"));
+        assertFalse(ProtocoloSerial.contemLeituraAscii(
+                new String(quadro(DecodificadorCobs.CANAL_TEMPERATURA, 25.5f, 1L), StandardCharsets.ISO_8859_1)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.leitor.serial;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Monta quadros do protocolo binário do sensor para os testes.
+ */
+public final class QuadrosCobs {
+
+    private QuadrosCobs() {
+    }
+
+    /**
+     * Monta o quadro do sensor: registro com CRC16, codificado com COBS e
+     * terminado pelo delimitador.
+     */
+    public static byte[] quadro(int canal, float valor, long instante) {
+        ByteBuffer registro = ByteBuffer.allocate(DecodificadorCobs.TAMANHO_QUADRO);
+        registro.put((byte) canal).putFloat(valor).putLong(instante);
+        int crc = Crc16.calcular(registro.array(), 0, DecodificadorCobs.TAMANHO_REGISTRO);
+        registro.putShort((short) crc);
+        return codificarCobs(registro.array());
+    }
+
+    static byte[] codificarCobs(byte[] dados) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ByteArrayOutputStream bloco = new ByteArrayOutputStream();
+        for (byte b : dados) {
+            if (b == 0) {
+                saida.write(bloco.size() + 1);
+                saida.write(bloco.toByteArray(), 0, bloco.size());
+                bloco.reset();
+            } else {
+                bloco.write(b);
+            }
+        }
+        saida.write(bloco.size() + 1);
+        saida.write(bloco.toByteArray(), 0, bloco.size());
+        saida.write(0);
+        return saida.toByteArray();
+    }
+
+    public static byte[] concatenar(byte[]... partes) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        for (byte[] parte : partes) {
+            saida.write(parte, 0, parte.length);
+        }
+        return saida.toByteArray();
+    }
+}
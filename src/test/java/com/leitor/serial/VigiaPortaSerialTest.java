@@ -0,0 +1,192 @@
+package com.leitor.serial;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+public class VigiaPortaSerialTest {
+
+    private SerialPort portaSerialMock;
+    private AtomicInteger reaberturas;
+    private long agoraNanos;
+    private VigiaPortaSerial vigia;
+
+    @Before
+    public void setup() {
+        portaSerialMock = mock(SerialPort.class);
+        when(portaSerialMock.getSystemPortName()).thenReturn("ttyUSB0");
+        reaberturas = new AtomicInteger();
+        agoraNanos = 0;
+        // Travamento após 1s sem quadros, espera de 100ms a 400ms entre tentativas
+        vigia = new VigiaPortaSerial(portaSerialMock, 1000, 100, 100, 400,
+                reaberturas::incrementAndGet, () -> agoraNanos);
+    }
+
+    private void avancar(long ms) {
+        agoraNanos += TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @Test
+    public void naoDeveAgirEnquantoQuadrosValidosChegam() {
+        when(portaSerialMock.isOpen()).thenReturn(true);
+
+        avancar(800);
+        vigia.registrarQuadroValido();
+        avancar(800);
+        vigia.verificar();
+
+        verify(portaSerialMock, never()).closePort();
+        assertFalse(vigia.isIndisponivel());
+    }
+
+    @Test
+    public void deveReabrirPortaTravada() {
+        when(portaSerialMock.isOpen()).thenReturn(true);
+        when(portaSerialMock.openPort()).thenReturn(true);
+
+        avancar(1500);
+        vigia.verificar();
+
+        verify(portaSerialMock, times(1)).removeDataListener();
+        verify(portaSerialMock, times(1)).closePort();
+        verify(portaSerialMock, times(1)).openPort();
+        assertEquals(1, reaberturas.get());
+
+        // A recuperação só é contada com um quadro válido após a reabertura
+        assertEquals(0, vigia.getRecuperacoes());
+        assertTrue(vigia.isIndisponivel());
+        avancar(100);
+        vigia.registrarQuadroValido();
+        vigia.verificar();
+
+        assertEquals(1, vigia.getRecuperacoes());
+        assertFalse(vigia.isIndisponivel());
+        // Indisponível desde o último quadro válido, e não desde a detecção
+        assertEquals(1600, vigia.getTempoIndisponivelMs());
+    }
+
+    @Test
+    public void deveManterEsperaExponencialQuandoSensorNaoResponde() {
+        when(portaSerialMock.isOpen()).thenReturn(true);
+        when(portaSerialMock.openPort()).thenReturn(true);
+
+        avancar(1500);
+        vigia.verificar(); // travamento: 1ª reabertura
+        avancar(1000);
+        vigia.verificar(); // ainda dentro do limite de inatividade
+        verify(portaSerialMock, times(1)).openPort();
+
+        avancar(100);
+        vigia.verificar(); // nenhum quadro: fecha e agenda nova tentativa em 100ms
+        verify(portaSerialMock, times(2)).closePort();
+        avancar(100);
+        vigia.verificar(); // 2ª reabertura
+        verify(portaSerialMock, times(2)).openPort();
+
+        avancar(1100);
+        vigia.verificar(); // nenhum quadro: próxima tentativa em 200ms
+        avancar(100);
+        vigia.verificar();
+        verify(portaSerialMock, times(2)).openPort();
+        avancar(100);
+        vigia.verificar(); // 3ª reabertura
+        verify(portaSerialMock, times(3)).openPort();
+
+        assertEquals(3, reaberturas.get());
+        assertEquals(0, vigia.getRecuperacoes());
+        assertTrue(vigia.isIndisponivel());
+        assertEquals(4000, vigia.getTempoIndisponivelMs());
+    }
+
+    @Test
+    public void deveTentarNovamenteComEsperaExponencial() {
+        when(portaSerialMock.isOpen()).thenReturn(false);
+        when(portaSerialMock.openPort()).thenReturn(false, false, true);
+
+        vigia.verificar(); // 1ª tentativa falha, próxima em 100ms
+        avancar(50);
+        vigia.verificar(); // ainda esperando
+        verify(portaSerialMock, times(1)).openPort();
+
+        avancar(50);
+        vigia.verificar(); // 2ª tentativa falha, próxima em 200ms
+        avancar(150);
+        vigia.verificar(); // ainda esperando
+        verify(portaSerialMock, times(2)).openPort();
+        assertTrue(vigia.isIndisponivel());
+
+        avancar(50);
+        vigia.verificar(); // 3ª tentativa reabre a porta
+        verify(portaSerialMock, times(3)).openPort();
+        assertEquals(1, reaberturas.get());
+
+        vigia.registrarQuadroValido();
+        vigia.verificar();
+        assertEquals(1, vigia.getRecuperacoes());
+        assertEquals(300, vigia.getTempoIndisponivelMs());
+    }
+
+    @Test
+    public void naoDeveReabrirPortaAposEncerrado() {
+        when(portaSerialMock.isOpen()).thenReturn(false);
+        when(portaSerialMock.openPort()).thenReturn(true);
+
+        vigia.close();
+        vigia.verificar();
+
+        verify(portaSerialMock, never()).openPort();
+        assertEquals(0, reaberturas.get());
+    }
+
+    @Test
+    public void deveAguardarVerificacaoEmAndamentoAoEncerrar() throws Exception {
+        CountDownLatch liberarAbertura = new CountDownLatch(1);
+        when(portaSerialMock.isOpen()).thenReturn(false);
+        // Como a chamada nativa, a abertura simulada não responde à interrupção
+        when(portaSerialMock.openPort()).thenAnswer(invocation -> {
+            boolean interrompida = false;
+            while (liberarAbertura.getCount() > 0) {
+                try {
+                    liberarAbertura.await();
+                } catch (InterruptedException e) {
+                    interrompida = true;
+                }
+            }
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        });
+        vigia.iniciar();
+        verify(portaSerialMock, timeout(2000)).openPort();
+
+        Thread encerramento = new Thread(vigia::close);
+        encerramento.start();
+        encerramento.join(200);
+        assertTrue(encerramento.isAlive());
+
+        liberarAbertura.countDown();
+        encerramento.join(2000);
+        assertFalse(encerramento.isAlive());
+
+        // Nenhuma nova tentativa após o retorno do close
+        avancar(1000);
+        Thread.sleep(300);
+        verify(portaSerialMock, times(1)).openPort();
+        assertEquals(0, reaberturas.get());
+    }
+}
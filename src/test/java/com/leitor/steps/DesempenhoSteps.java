@@ -0,0 +1,332 @@
+package com.leitor.steps;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortDataListener;
+import com.fazecast.jSerialComm.SerialPortEvent;
+import com.leitor.Configuracao;
+import com.leitor.SensorWorker;
+import com.leitor.mqtt.ClienteMqtt;
+import com.leitor.mqtt.ConexaoBroker;
+import com.leitor.mqtt.PublicadorMultiBroker;
+import com.leitor.mqtt.Quorum;
+
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.pt.Dado;
+import io.cucumber.java.pt.Então;
+import io.cucumber.java.pt.Quando;
+
+public class DesempenhoSteps {
+
+    // Intervalo entre os blocos de linhas emitidos pela porta simulada
+    private static final long INTERVALO_BLOCO_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // Execução descartada antes da medição, para que a compilação JIT não entre nos resultados
+    private static final long AQUECIMENTO_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Limite de espera pelo esvaziamento da fila de publicação ao fim da carga
+    private static final long ESPERA_ESVAZIAR_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // Arquivo com o histórico das medições, ao lado dos relatórios do Cucumber
+    private static final Path RELATORIO = Paths.get("target", "cucumber-reports", "desempenho.csv");
+
+    private Scenario cenario;
+
+    // Parâmetros da carga
+    private int linhasPorSegundo;
+    private long duracaoNanos;
+    private long confirmacaoNanos;
+
+    // Instante de emissão de cada linha, indexado pelo número de sequência
+    private long[] emitidas;
+    private int totalEmitidas;
+
+    private SerialPort portaSerialMock;
+    private BrokerLocalSimulado broker;
+    private ConexaoBroker conexao;
+    private SensorWorker sensorWorker;
+
+    // Bloco de linhas disponível para leitura no evento atual da porta simulada
+    private byte[] blocoAtual;
+
+    // Resultados da execução
+    private double vazao;
+    private long latenciaP99Nanos;
+    private long crescimentoHeapBytes;
+
+    @Before
+    public void registrarCenario(Scenario cenario) {
+        this.cenario = cenario;
+    }
+
+    @Dado("um sensor emitindo {int} linhas\\/s por {int} segundos")
+    public void um_sensor_emitindo_linhas_por_segundos(int linhasPorSegundo, int segundos) {
+        configurarSensor(linhasPorSegundo, TimeUnit.SECONDS.toNanos(segundos));
+    }
+
+    @Dado("um sensor emitindo {int} linhas\\/s por {int} minutos")
+    public void um_sensor_emitindo_linhas_por_minutos(int linhasPorSegundo, int minutos) {
+        configurarSensor(linhasPorSegundo, TimeUnit.MINUTES.toNanos(minutos));
+    }
+
+    private void configurarSensor(int linhasPorSegundo, long duracaoNanos) {
+        this.linhasPorSegundo = linhasPorSegundo;
+        this.duracaoNanos = duracaoNanos;
+        this.emitidas = new long[(int) (linhasPorSegundo * TimeUnit.NANOSECONDS.toSeconds(duracaoNanos))];
+
+        // Porta simulada: cada evento entrega o bloco preparado pela thread emissora
+        portaSerialMock = mock(SerialPort.class);
+        when(portaSerialMock.getSystemPortName()).thenReturn("simulada");
+        when(portaSerialMock.openPort()).thenReturn(true);
+        when(portaSerialMock.isOpen()).thenReturn(true);
+        when(portaSerialMock.bytesAvailable()).thenAnswer(inv -> blocoAtual.length);
+        when(portaSerialMock.readBytes(any(byte[].class), anyInt())).thenAnswer(inv -> {
+            byte[] buffer = inv.getArgument(0);
+            System.arraycopy(blocoAtual, 0, buffer, 0, blocoAtual.length);
+            return blocoAtual.length;
+        });
+    }
+
+    /**
+     * Monta o caminho de publicação real (fila, thread de envio e retry da
+     * {@link ConexaoBroker}) sobre um cliente MQTT simulado, com a configuração
+     * padrão do leitor.
+     */
+    @Dado("um broker MQTT local de teste que confirma em {int} µs")
+    public void um_broker_mqtt_local_de_teste(int confirmacaoMicros) {
+        confirmacaoNanos = TimeUnit.MICROSECONDS.toNanos(confirmacaoMicros);
+        montarPublicacao();
+    }
+
+    private void montarPublicacao() {
+        Configuracao configuracao = new Configuracao(new Properties());
+        broker = new BrokerLocalSimulado(emitidas, confirmacaoNanos);
+        conexao = new ConexaoBroker("local", true, broker, ConexaoBroker.criarRetryConfig(configuracao),
+                configuracao.getInteiro("mqtt.fila.capacidade", 1000));
+        sensorWorker = new SensorWorker(portaSerialMock, new PublicadorMultiBroker(
+                Collections.singletonList(conexao), Quorum.QUALQUER, configuracao.getInteiro("mqtt.qos", 2)));
+    }
+
+    @Quando("o leitor processa a carga")
+    public void o_leitor_processa_a_carga() {
+        // Silencia o log por linha durante a medição
+        Configurator.setLevel("com.leitor", Level.WARN);
+        PrintStream saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            executar(Math.min(AQUECIMENTO_NANOS, duracaoNanos));
+            montarPublicacao();
+            totalEmitidas = 0;
+
+            long heapInicial = heapUsado();
+            long decorrido = executar(duracaoNanos);
+            crescimentoHeapBytes = heapUsado() - heapInicial;
+            vazao = broker.getRecebidas() / (decorrido / 1e9);
+            latenciaP99Nanos = broker.percentil(0.99);
+        } finally {
+            System.setOut(saidaOriginal);
+            Configurator.setLevel("com.leitor", Level.INFO);
+        }
+        registrarRelatorio();
+    }
+
+    /**
+     * Emite a carga e aguarda a publicação das linhas antes de encerrar o leitor.
+     *
+     * @return Tempo desde a primeira linha emitida até a última publicação concluída.
+     */
+    private long executar(long duracao) {
+        sensorWorker.iniciarLeitura();
+        SerialPortDataListener listener = sensorWorker.getSerialPortDataListener();
+        long inicio = System.nanoTime();
+        emitir(listener, inicio, duracao);
+        aguardarFila();
+        long decorrido = System.nanoTime() - inicio;
+        sensorWorker.pararLeitura();
+        return decorrido;
+    }
+
+    /**
+     * Emite as linhas em blocos a cada 10 ms, no ritmo configurado, disparando
+     * um evento da porta para cada bloco.
+     */
+    private void emitir(SerialPortDataListener listener, long inicio, long duracao) {
+        int linhasPorBloco = Math.max(1, (int) (linhasPorSegundo * INTERVALO_BLOCO_NANOS / TimeUnit.SECONDS.toNanos(1)));
+        StringBuilder bloco = new StringBuilder(linhasPorBloco * 16);
+        long proximoBloco = inicio;
+        while (totalEmitidas < emitidas.length && System.nanoTime() - inicio < duracao) {
+            long espera = proximoBloco - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            bloco.setLength(0);
+            int primeira = totalEmitidas;
+            int ultima = Math.min(primeira + linhasPorBloco, emitidas.length);
+            for (int seq = primeira; seq < ultima; seq++) {
+                bloco.append("TEMP:").append(seq).append('\n');
+            }
+            blocoAtual = bloco.toString().getBytes(StandardCharsets.UTF_8);
+            long agora = System.nanoTime();
+            for (int seq = primeira; seq < ultima; seq++) {
+                emitidas[seq] = agora;
+            }
+            totalEmitidas = ultima;
+            listener.serialEvent(new SerialPortEvent(portaSerialMock, SerialPort.LISTENING_EVENT_DATA_AVAILABLE));
+            proximoBloco += INTERVALO_BLOCO_NANOS;
+        }
+    }
+
+    /**
+     * Aguarda a thread de envio concluir as mensagens já enfileiradas, antes
+     * que o encerramento descarte as pendentes.
+     */
+    private void aguardarFila() {
+        long limite = System.nanoTime() + ESPERA_ESVAZIAR_NANOS;
+        while (concluidas() < totalEmitidas && System.nanoTime() < limite) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private long concluidas() {
+        return conexao.getPublicadas() + conexao.getFalhas() + conexao.getDescartadas();
+    }
+
+    private static long heapUsado() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void registrarRelatorio() {
+        String resumo = String.format(Locale.ROOT,
+                "emitidas=%d recebidas=%d perdidas=%d descartadas=%d falhas=%d vazao=%.0f linhas/s p99=%.3f ms"
+                        + " heap=%+.1f MB",
+                totalEmitidas, broker.getRecebidas(), totalEmitidas - broker.getRecebidas(),
+                conexao.getDescartadas(), conexao.getFalhas(), vazao, latenciaP99Nanos / 1e6,
+                crescimentoHeapBytes / (1024.0 * 1024.0));
+        cenario.log(resumo);
+        try {
+            Files.createDirectories(RELATORIO.getParent());
+            if (Files.notExists(RELATORIO)) {
+                Files.write(RELATORIO, "cenario,emitidas,recebidas,descartadas,falhas,vazao,p99_ms,heap_mb\n"
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            String linha = String.format(Locale.ROOT, "\"%s\",%d,%d,%d,%d,%.0f,%.3f,%.1f%n", cenario.getName(),
+                    totalEmitidas, broker.getRecebidas(), conexao.getDescartadas(), conexao.getFalhas(), vazao,
+                    latenciaP99Nanos / 1e6, crescimentoHeapBytes / (1024.0 * 1024.0));
+            Files.write(RELATORIO, linha.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            cenario.log("Não foi possível gravar " + RELATORIO + ": " + e.getMessage());
+        }
+    }
+
+    @Então("a vazão sustentada é de pelo menos {int} linhas\\/s")
+    public void a_vazao_sustentada_e_de_pelo_menos(int minimo) {
+        assertTrue("Vazão de " + Math.round(vazao) + " linhas/s abaixo de " + minimo, vazao >= minimo);
+    }
+
+    @Então("a latência p99 entre a porta serial e a publicação é menor que {int} ms")
+    public void a_latencia_p99_e_menor_que(int limiteMs) {
+        assertTrue("Latência p99 de " + latenciaP99Nanos / 1e6 + " ms acima de " + limiteMs + " ms",
+                latenciaP99Nanos < TimeUnit.MILLISECONDS.toNanos(limiteMs));
+    }
+
+    @Então("o crescimento do heap é menor que {int} MB")
+    public void o_crescimento_do_heap_e_menor_que(int limiteMb) {
+        assertTrue("Heap cresceu " + crescimentoHeapBytes / (1024 * 1024) + " MB",
+                crescimentoHeapBytes < limiteMb * 1024L * 1024L);
+    }
+
+    @Então("nenhuma linha é perdida")
+    public void nenhuma_linha_e_perdida() {
+        assertEquals("Linhas descartadas pela fila de publicação", 0, conexao.getDescartadas());
+        assertEquals("Publicações com falha", 0, conexao.getFalhas());
+        assertEquals("Linhas perdidas", totalEmitidas, broker.getRecebidas());
+    }
+
+    /**
+     * Broker local simulado na camada de transporte: cada publicação aguarda a
+     * latência de confirmação configurada e mede o tempo desde a emissão da
+     * linha na porta serial. A espera pela confirmação não ocupa a CPU, como
+     * a de um cliente aguardando o broker.
+     */
+    private static class BrokerLocalSimulado implements ClienteMqtt {
+
+        private final long[] emitidas;
+        private final long[] latencias;
+        private final long confirmacaoNanos;
+        private final AtomicLong recebidas = new AtomicLong();
+        private volatile boolean conectado;
+
+        BrokerLocalSimulado(long[] emitidas, long confirmacaoNanos) {
+            this.emitidas = emitidas;
+            this.latencias = new long[emitidas.length];
+            this.confirmacaoNanos = confirmacaoNanos;
+        }
+
+        @Override
+        public void conectar() {
+            conectado = true;
+        }
+
+        @Override
+        public boolean isConectado() {
+            return conectado;
+        }
+
+        @Override
+        public void publicar(String topico, byte[] conteudo, int qos, long instanteLeitura) {
+            if (confirmacaoNanos > 0) {
+                LockSupport.parkNanos(confirmacaoNanos);
+            }
+            int seq = Integer.parseInt(new String(conteudo, StandardCharsets.UTF_8));
+            latencias[(int) recebidas.getAndIncrement()] = System.nanoTime() - emitidas[seq];
+        }
+
+        @Override
+        public void close() {
+            conectado = false;
+        }
+
+        long getRecebidas() {
+            return recebidas.get();
+        }
+
+        long percentil(double p) {
+            int quantidade = (int) recebidas.get();
+            if (quantidade == 0) {
+                return 0;
+            }
+            long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+            Arrays.sort(ordenadas);
+            return ordenadas[Math.min(quantidade - 1, (int) Math.ceil(p * quantidade) - 1)];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+# language: pt
+Funcionalidade: Desempenho da leitura e publicação sob carga
+  Como operador do gateway
+  Quero que o leitor acompanhe sensores com alta taxa de emissão
+  Sem perder linhas nem acumular memória
+
+  # Medição sensível à carga da máquina, fora da suíte padrão:
+  # mvn test -Dcucumber.filter.tags=@desempenho
+  @desempenho
+  Cenário: Vazão sustentada com 10.000 linhas por segundo
+    Dado um sensor emitindo 10000 linhas/s por 5 segundos
+    E um broker MQTT local de teste que confirma em 20 µs
+    Quando o leitor processa a carga
+    Então a vazão sustentada é de pelo menos 9000 linhas/s
+    E a latência p99 entre a porta serial e a publicação é menor que 50 ms
+    E o crescimento do heap é menor que 64 MB
+    E nenhuma linha é perdida
+
+  # Execução longa, fora da suíte padrão: mvn test -Dcucumber.filter.tags=@soak
+  @soak
+  Cenário: Carga contínua de 10.000 linhas por segundo por 10 minutos
+    Dado um sensor emitindo 10000 linhas/s por 10 minutos
+    E um broker MQTT local de teste que confirma em 20 µs
+    Quando o leitor processa a carga
+    Então a vazão sustentada é de pelo menos 9500 linhas/s
+    E a latência p99 entre a porta serial e a publicação é menor que 20 ms
+    E o crescimento do heap é menor que 32 MB
+    E nenhuma linha é perdida